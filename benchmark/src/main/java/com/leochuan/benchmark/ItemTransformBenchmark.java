@@ -0,0 +1,172 @@
+package com.leochuan.benchmark;
+
+import com.leochuan.ItemTransformKernel;
+import com.leochuan.PagerLayoutKernel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per frame cost of the offset to geometry and transform math of each layout manager, for every item
+ * of the window. The values are the ones the manager would set on its views; setting them is android
+ * only and is not measured.
+ * <p>
+ * Managers are configured with their builder defaults on a 1080px wide list of 600px items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemTransformBenchmark {
+    private static final int TOTAL_SPACE = 1080;
+    private static final int MEASUREMENT = 600;
+    private static final int SPACE_MAIN = (TOTAL_SPACE - MEASUREMENT) / 2;
+    private static final float INTERVAL = MEASUREMENT;
+    private static final int LEFT_ITEMS = 2;
+    private static final int RIGHT_ITEMS = 3;
+    /**
+     * Not a divisor of an item, so items are rarely centered
+     */
+    private static final float ITEM_STEP = 0.0518f;
+
+    private static final float SCALE_MIN_SCALE = 0.8f;
+    private static final float GALLERY_ANGLE = 30f;
+    private static final float ROTATE_ANGLE = 360f;
+    private static final float CAROUSEL_MIN_SCALE = 0.5f;
+    private static final int CIRCLE_RADIUS = 1480;
+    private static final int CIRCLE_ANGLE_INTERVAL = 30;
+    private static final float CIRCLE_CENTER_SCALE = 1.6f;
+    private static final int STACK_COUNT = 3;
+    private static final float STACK_SCALE = 0.05f;
+    private static final int STACK_OFFSET = 40;
+    private static final float COVER_FLOW_ANGLE = 30f;
+    private static final float COVER_FLOW_MAX_ANGLE = 75f;
+
+    @Param({"10", "100", "10000"})
+    public int itemCount;
+
+    private final int[] window = new int[2];
+    private float position;
+    private float coverFlowRadius;
+    private float coverFlowAnglePerOffset;
+
+    @Setup
+    public void setUp() {
+        position = 0;
+        coverFlowRadius = INTERVAL / (float) Math.toRadians(COVER_FLOW_ANGLE);
+        coverFlowAnglePerOffset = COVER_FLOW_ANGLE / INTERVAL;
+    }
+
+    /**
+     * Scroll a bit further, from the first item to the last one and back, and lay out the window there
+     *
+     * @return the offset of the frame
+     */
+    private float nextFrame(float interval) {
+        position += ITEM_STEP;
+        if (position > itemCount - 1) {
+            position = 0;
+        }
+        final float offset = position * interval;
+        PagerLayoutKernel.calculateWindow(PagerLayoutKernel.getCurrentPositionOffset(offset, interval),
+                LEFT_ITEMS, RIGHT_ITEMS, PagerLayoutKernel.DETERMINE_BY_MAX_AND_MIN, false, itemCount, window);
+        return offset;
+    }
+
+    @Benchmark
+    public void scale(Blackhole blackhole) {
+        final float offset = nextFrame(INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            final float targetOffset = i * INTERVAL - offset;
+            blackhole.consume(ItemTransformKernel.linearScale(targetOffset, MEASUREMENT, SCALE_MIN_SCALE, 1f));
+            blackhole.consume(ItemTransformKernel.fadeAlpha(targetOffset, INTERVAL, 1f, 1f));
+        }
+    }
+
+    @Benchmark
+    public void gallery(Blackhole blackhole) {
+        final float offset = nextFrame(INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            final float targetOffset = i * INTERVAL - offset;
+            blackhole.consume(ItemTransformKernel.linearRotation(targetOffset, INTERVAL, -GALLERY_ANGLE));
+            blackhole.consume(ItemTransformKernel.fadeAlpha(targetOffset, INTERVAL, 1f, 1f));
+        }
+    }
+
+    @Benchmark
+    public void rotate(Blackhole blackhole) {
+        final float offset = nextFrame(INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            blackhole.consume(ItemTransformKernel.linearRotation(i * INTERVAL - offset, INTERVAL, -ROTATE_ANGLE));
+        }
+    }
+
+    @Benchmark
+    public void carousel(Blackhole blackhole) {
+        final float offset = nextFrame(INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            blackhole.consume(ItemTransformKernel.carouselScale(i * INTERVAL - offset, SPACE_MAIN, TOTAL_SPACE,
+                    MEASUREMENT, CAROUSEL_MIN_SCALE));
+        }
+    }
+
+    @Benchmark
+    public void circle(Blackhole blackhole) {
+        final float offset = nextFrame(CIRCLE_ANGLE_INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            final float targetOffset = i * CIRCLE_ANGLE_INTERVAL - offset;
+            blackhole.consume(ItemTransformKernel.circleAlong(CIRCLE_RADIUS, targetOffset));
+            blackhole.consume(ItemTransformKernel.circleAcross(CIRCLE_RADIUS, targetOffset));
+            blackhole.consume(ItemTransformKernel.circleRotation(targetOffset, true));
+        }
+    }
+
+    @Benchmark
+    public void circleScale(Blackhole blackhole) {
+        final float offset = nextFrame(CIRCLE_ANGLE_INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            final float targetOffset = i * CIRCLE_ANGLE_INTERVAL - offset;
+            blackhole.consume(ItemTransformKernel.circleAlong(CIRCLE_RADIUS, targetOffset));
+            blackhole.consume(ItemTransformKernel.circleAcross(CIRCLE_RADIUS, targetOffset));
+            blackhole.consume(ItemTransformKernel.circleRotation(targetOffset, true));
+            blackhole.consume(ItemTransformKernel.circleCenterScale(targetOffset, CIRCLE_ANGLE_INTERVAL,
+                    CIRCLE_CENTER_SCALE));
+        }
+    }
+
+    @Benchmark
+    public void stack(Blackhole blackhole) {
+        final float offset = nextFrame(INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            final float targetOffset = i * INTERVAL - offset;
+            final float depth = ItemTransformKernel.stackDepth(targetOffset, INTERVAL, STACK_COUNT, false);
+            blackhole.consume(ItemTransformKernel.stackMain(targetOffset, depth, STACK_OFFSET, false));
+            blackhole.consume(1f - STACK_SCALE * depth);
+        }
+    }
+
+    @Benchmark
+    public void coverFlow(Blackhole blackhole) {
+        final float offset = nextFrame(INTERVAL);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            final float angle = ItemTransformKernel.cylinderAngle(i * INTERVAL - offset, coverFlowAnglePerOffset,
+                    COVER_FLOW_MAX_ANGLE);
+            blackhole.consume(ItemTransformKernel.cylinderProjection(coverFlowRadius, angle));
+            blackhole.consume(angle);
+        }
+    }
+}
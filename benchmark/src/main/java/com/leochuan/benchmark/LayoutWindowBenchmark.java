@@ -0,0 +1,117 @@
+package com.leochuan.benchmark;
+
+import com.leochuan.PagerLayoutKernel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per call cost of the window math {@link com.leochuan.ViewPagerLayoutManager} runs over layout positions.
+ * <p>
+ * Infinite scroll is always on, so every offset gets a full window and the layout positions go below 0
+ * and beyond the item count. Reverse layout only flips the sign of the offsets here, so it is not a param.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LayoutWindowBenchmark {
+    private static final float INTERVAL = 720f;
+    private static final int LEFT_ITEMS = 2;
+    private static final int RIGHT_ITEMS = 3;
+    /**
+     * Not a divisor of the interval, so offsets are rarely centered on an item
+     */
+    private static final float OFFSET_STEP = 37.3f;
+
+    @Param({"10", "100", "10000"})
+    public int itemCount;
+
+    private final int[] window = new int[2];
+    /**
+     * Stands in for the keys of positionCache, which SparseArray keeps sorted and binary searches
+     */
+    private final int[] windowKeys = new int[LEFT_ITEMS + RIGHT_ITEMS + 1];
+    private float offset;
+    private float period;
+    private int lookup;
+
+    @Setup
+    public void setUp() {
+        period = INTERVAL * itemCount;
+        offset = -period;
+    }
+
+    /**
+     * @return the next layout position, going from minus one period to plus one period and back
+     */
+    private int nextLayoutPosition() {
+        offset += OFFSET_STEP;
+        if (offset > period) {
+            offset = -period;
+        }
+        return PagerLayoutKernel.getCurrentPositionOffset(offset, INTERVAL);
+    }
+
+    @Benchmark
+    public int toAdapterPosition() {
+        return PagerLayoutKernel.toAdapterPosition(nextLayoutPosition(), itemCount);
+    }
+
+    /**
+     * The window and adapter mapping part of layoutItems, without the views
+     */
+    @Benchmark
+    public void layoutRange(Blackhole blackhole) {
+        PagerLayoutKernel.calculateWindow(nextLayoutPosition(), LEFT_ITEMS, RIGHT_ITEMS,
+                PagerLayoutKernel.DETERMINE_BY_MAX_AND_MIN, true, itemCount, window);
+        for (int i = window[PagerLayoutKernel.WINDOW_START]; i < window[PagerLayoutKernel.WINDOW_END]; i++) {
+            blackhole.consume(PagerLayoutKernel.toAdapterPosition(i, itemCount));
+            blackhole.consume(PagerLayoutKernel.getOffsetOfPosition(i, INTERVAL, false) - offset);
+        }
+    }
+
+    /**
+     * The lookup of findViewByPosition, for an adapter position in the window, which is the case the
+     * focus search and the accessibility calls hit
+     *
+     * @return the layout position found, or -1
+     */
+    @Benchmark
+    public int findViewByPosition() {
+        final int current = nextLayoutPosition();
+        PagerLayoutKernel.calculateWindow(current, LEFT_ITEMS, RIGHT_ITEMS,
+                PagerLayoutKernel.DETERMINE_BY_MAX_AND_MIN, true, itemCount, window);
+        final int start = window[PagerLayoutKernel.WINDOW_START];
+        final int size = window[PagerLayoutKernel.WINDOW_END] - start;
+        for (int i = 0; i < size; i++) {
+            windowKeys[i] = start + i;
+        }
+        lookup = lookup == size - 1 ? 0 : lookup + 1;
+        final int position = PagerLayoutKernel.toAdapterPosition(start + lookup, itemCount);
+
+        final int windowEnd = windowKeys[size - 1];
+        for (int layoutPosition = PagerLayoutKernel.findLayoutPosition(position, windowKeys[0], itemCount);
+             layoutPosition <= windowEnd; layoutPosition += itemCount) {
+            if (Arrays.binarySearch(windowKeys, 0, size, layoutPosition) >= 0) {
+                return layoutPosition;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.leochuan.benchmark;
+
+import com.leochuan.PagerLayoutKernel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per call cost of the offset math {@link com.leochuan.ViewPagerLayoutManager} runs on every scrolled frame,
+ * in every combination of infinite scroll and reverse layout it branches on.
+ * <p>
+ * Offsets walk through a whole period of the list, forward and backward of the first item,
+ * so the infinite mapping is measured on both sides of 0 instead of being constant folded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PagerLayoutKernelBenchmark {
+    private static final float INTERVAL = 720f;
+    /**
+     * Not a divisor of the interval, so offsets are rarely centered on an item
+     */
+    private static final float OFFSET_STEP = 37.3f;
+
+    @Param({"10", "100", "10000"})
+    public int itemCount;
+
+    @Param({"false", "true"})
+    public boolean infinite;
+
+    @Param({"false", "true"})
+    public boolean reverse;
+
+    private float offset;
+    private float period;
+
+    @Setup
+    public void setUp() {
+        period = INTERVAL * itemCount;
+        offset = -period;
+    }
+
+    /**
+     * @return the next offset, going from minus one period to plus one period and back
+     */
+    private float nextOffset() {
+        offset += OFFSET_STEP;
+        if (offset > period) {
+            offset = -period;
+        }
+        return offset;
+    }
+
+    @Benchmark
+    public int getCurrentPosition() {
+        return PagerLayoutKernel.getCurrentPosition(nextOffset(), INTERVAL, itemCount, infinite, reverse);
+    }
+
+    @Benchmark
+    public int getOffsetToCenter() {
+        return PagerLayoutKernel.getOffsetToCenter(nextOffset(), INTERVAL, itemCount, infinite, reverse, 1f);
+    }
+
+    @Benchmark
+    public int computeScrollOffset() {
+        final float realOffset = PagerLayoutKernel.getOffsetOfRightAdapterPosition(nextOffset(), INTERVAL,
+                itemCount, infinite, reverse);
+        return PagerLayoutKernel.computeScrollOffset(realOffset, INTERVAL, itemCount, reverse);
+    }
+}
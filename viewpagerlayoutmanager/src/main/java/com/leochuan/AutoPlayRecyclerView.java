@@ -13,7 +13,16 @@ import androidx.recyclerview.widget.RecyclerView;
  */
 
 public class AutoPlayRecyclerView extends RecyclerView {
+    private static final int GESTURE_IDLE = 0;
+    private static final int GESTURE_TOUCHING = 1;
+    private static final int GESTURE_SETTLING = 2;
+
     public AutoPlaySnapHelper autoPlaySnapHelper;
+    /**
+     * Auto play is paused while touching, and resumed after the scroll caused by the gesture settles
+     */
+    private int gestureState = GESTURE_IDLE;
+    private boolean resumeAfterGesture;
 
     public AutoPlayRecyclerView(Context context) {
         this(context, null);
@@ -35,27 +44,66 @@ public class AutoPlayRecyclerView extends RecyclerView {
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
         boolean result = super.dispatchTouchEvent(ev);
-        switch (ev.getAction()) {
+        switch (ev.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
-                if (autoPlaySnapHelper != null) {
-                    autoPlaySnapHelper.pause();
-                }
+                onGestureStart();
                 break;
             case MotionEvent.ACTION_UP:
-                if (autoPlaySnapHelper != null) {
-                    autoPlaySnapHelper.start();
-                }
+            case MotionEvent.ACTION_CANCEL:
+                // cancel is received when the gesture is intercepted by a parent, e.g. a vertical feed
+                onGestureEnd();
+                break;
             default:
                 break;
         }
         return result;
     }
 
+    @Override
+    public void onScrollStateChanged(int state) {
+        super.onScrollStateChanged(state);
+        if (state == SCROLL_STATE_IDLE && gestureState == GESTURE_SETTLING) {
+            resumeAfterGesture();
+        }
+    }
+
+    private void onGestureStart() {
+        if (gestureState == GESTURE_IDLE) {
+            // only resume later if it was playing before the gesture
+            resumeAfterGesture = autoPlaySnapHelper != null && autoPlaySnapHelper.runnableAdded;
+        }
+        gestureState = GESTURE_TOUCHING;
+        if (autoPlaySnapHelper != null) {
+            autoPlaySnapHelper.pause();
+        }
+    }
+
+    private void onGestureEnd() {
+        if (gestureState != GESTURE_TOUCHING) {
+            return;
+        }
+        gestureState = GESTURE_SETTLING;
+        // wait for fling and snap to finish, so the next tick won't collide with them
+        if (getScrollState() == SCROLL_STATE_IDLE) {
+            resumeAfterGesture();
+        }
+    }
+
+    private void resumeAfterGesture() {
+        gestureState = GESTURE_IDLE;
+        if (resumeAfterGesture && autoPlaySnapHelper != null) {
+            // start() waits for a full interval before the next tick
+            autoPlaySnapHelper.start();
+        }
+        resumeAfterGesture = false;
+    }
+
     public void start() {
         autoPlaySnapHelper.start();
     }
 
     public void pause() {
+        resumeAfterGesture = false;
         autoPlaySnapHelper.pause();
     }
 
@@ -2,11 +2,15 @@ package com.leochuan;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
 import android.widget.Scroller;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 
@@ -16,14 +20,52 @@ import androidx.recyclerview.widget.RecyclerView;
 
 public class AutoPlaySnapHelper extends CenterSnapHelper {
     public final static int TIME_INTERVAL = 2000;
+    public final static int PREFETCH_LEAD_TIME = 500;
+    public final static int PREFETCH_TIMEOUT = 1000;
+
+    public final static int TRANSITION_DURATION = 400;
 
     public final static int LEFT = 1;
     public final static int RIGHT = 2;
+
+    /**
+     * Scroll to the next item by {@link RecyclerView#smoothScrollBy(int, int)}
+     */
+    public final static int TRANSITION_SMOOTH_SCROLL = 1;
+    /**
+     * Animate {@link ViewPagerLayoutManager#mOffset} on each frame and only update the
+     * attached children in place, falling back to a layout when another item comes into sight.
+     * Each frame is scrolled through {@link RecyclerView#scrollBy(int, int)} so scroll listeners
+     * are told, and the page change listener sees it settling then idle like a smooth scroll.
+     */
+    public final static int TRANSITION_OFFSET_ANIMATION = 2;
     protected Runnable autoPlayRunnable;
     protected Handler handler;
     protected int timeInterval;
     protected boolean runnableAdded;
     protected int direction;
+    protected OnPrefetchListener onPrefetchListener;
+    protected Runnable prefetchRunnable;
+    protected Runnable readyTimeoutRunnable;
+    /**
+     * How long before each tick {@link OnPrefetchListener#onPrefetch(int)} is fired, 0 disables prefetch
+     */
+    protected int prefetchLeadTime = PREFETCH_LEAD_TIME;
+    /**
+     * The longest time a tick will wait for {@link #notifyItemReady(int)}
+     */
+    protected int prefetchTimeout = PREFETCH_TIMEOUT;
+    protected int pendingPosition = RecyclerView.NO_POSITION;
+    protected boolean pendingReady;
+    protected boolean waitingForReady;
+    protected int transitionMode = TRANSITION_SMOOTH_SCROLL;
+    protected int transitionDuration = TRANSITION_DURATION;
+    protected Interpolator transitionInterpolator = new AccelerateDecelerateInterpolator();
+    protected Runnable transitionFrameRunnable;
+    protected boolean transitionRunning;
+    protected long transitionStartTime;
+    protected float transitionStartOffset;
+    protected float transitionTargetOffset;
 
     public AutoPlaySnapHelper(int timeInterval, int direction) {
         checkTimeInterval(timeInterval);
@@ -64,7 +106,25 @@ public class AutoPlaySnapHelper extends CenterSnapHelper {
                     onRun((ViewPagerLayoutManager) layoutManager);
                 }
             };
-            handler.postDelayed(autoPlayRunnable, timeInterval);
+            prefetchRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    onPrefetch((ViewPagerLayoutManager) layoutManager);
+                }
+            };
+            readyTimeoutRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    advance((ViewPagerLayoutManager) layoutManager);
+                }
+            };
+            transitionFrameRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    onTransitionFrame((ViewPagerLayoutManager) layoutManager);
+                }
+            };
+            scheduleNext();
             runnableAdded = true;
         }
     }
@@ -73,39 +133,277 @@ public class AutoPlaySnapHelper extends CenterSnapHelper {
     protected void destroyCallbacks() {
         super.destroyCallbacks();
         if (runnableAdded) {
-            handler.removeCallbacks(autoPlayRunnable);
+            removeCallbacks();
             runnableAdded = false;
         }
     }
 
+    /**
+     * Post the next tick, preceded by a prefetch call if a {@link OnPrefetchListener}
+     * or a {@link PrefetchAdvisor} is set. A lead time not shorter than the interval
+     * prefetches right after the previous tick.
+     */
+    protected void scheduleNext() {
+        if (hasPrefetchTarget() && prefetchLeadTime > 0) {
+            handler.postDelayed(prefetchRunnable, Math.max(0, timeInterval - prefetchLeadTime));
+        } else {
+            handler.postDelayed(autoPlayRunnable, timeInterval);
+        }
+    }
+
+    protected void removeCallbacks() {
+        handler.removeCallbacks(autoPlayRunnable);
+        handler.removeCallbacks(prefetchRunnable);
+        handler.removeCallbacks(readyTimeoutRunnable);
+        pendingPosition = RecyclerView.NO_POSITION;
+        pendingReady = false;
+        waitingForReady = false;
+        stopTransition();
+    }
+
+    protected void onPrefetch(@NonNull ViewPagerLayoutManager layoutManager) {
+        pendingPosition = getNextAdapterPosition(layoutManager);
+        pendingReady = false;
+        if (onPrefetchListener != null && pendingPosition != RecyclerView.NO_POSITION) {
+            onPrefetchListener.onPrefetch(pendingPosition);
+        }
+        if (layoutManager.prefetchAdvisor != null) {
+            layoutManager.prefetchAdvisor.onTargetPredicted(getNextLayoutPosition(layoutManager), prefetchLeadTime);
+        }
+        handler.postDelayed(autoPlayRunnable, Math.min(prefetchLeadTime, timeInterval));
+    }
+
+    private boolean hasPrefetchTarget() {
+        if (onPrefetchListener != null) {
+            return true;
+        }
+        final RecyclerView.LayoutManager layoutManager = mRecyclerView == null ? null : mRecyclerView.getLayoutManager();
+        return layoutManager instanceof ViewPagerLayoutManager
+                && ((ViewPagerLayoutManager) layoutManager).prefetchAdvisor != null;
+    }
+
     protected void onRun(@NonNull ViewPagerLayoutManager layoutManager) {
+        // give the upcoming item a chance to get ready, but never wait longer than prefetchTimeout
+        if (onPrefetchListener != null && pendingPosition != RecyclerView.NO_POSITION && !pendingReady) {
+            waitingForReady = true;
+            handler.postDelayed(readyTimeoutRunnable, prefetchTimeout);
+            return;
+        }
+        advance(layoutManager);
+    }
+
+    protected void advance(@NonNull ViewPagerLayoutManager layoutManager) {
+        pendingPosition = RecyclerView.NO_POSITION;
+        pendingReady = false;
+        waitingForReady = false;
+        if (transitionMode == TRANSITION_OFFSET_ANIMATION && mRecyclerView.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+            startTransition(layoutManager, getNextLayoutPosition(layoutManager));
+        } else {
+            ScrollHelper.smoothScrollToPosition(mRecyclerView, layoutManager, getNextLayoutPosition(layoutManager));
+        }
+        scheduleNext();
+    }
+
+    protected void startTransition(@NonNull ViewPagerLayoutManager layoutManager, int targetPosition) {
+        if (transitionRunning) {
+            mRecyclerView.removeCallbacks(transitionFrameRunnable);
+        }
+        transitionStartOffset = layoutManager.mOffset;
+        transitionTargetOffset = layoutManager.getProperty(targetPosition);
+        if (!layoutManager.getInfinite()) {
+            transitionTargetOffset = Math.max(layoutManager.getMinOffset(),
+                    Math.min(layoutManager.getMaxOffset(), transitionTargetOffset));
+        }
+        transitionStartTime = AnimationUtils.currentAnimationTimeMillis();
+        if (!transitionRunning && layoutManager.onPageChangeListener != null) {
+            layoutManager.onPageChangeListener.onPageScrollStateChanged(RecyclerView.SCROLL_STATE_SETTLING);
+        }
+        transitionRunning = true;
+        ViewCompat.postOnAnimation(mRecyclerView, transitionFrameRunnable);
+    }
+
+    /**
+     * Stop a running transition, the offset left between two items is snapped to the closest one
+     * since no scroll state change will do it
+     */
+    protected void stopTransition() {
+        if (transitionRunning) {
+            mRecyclerView.removeCallbacks(transitionFrameRunnable);
+            transitionRunning = false;
+            final RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+            if (layoutManager instanceof ViewPagerLayoutManager) {
+                onTransitionIdle((ViewPagerLayoutManager) layoutManager);
+                snapToCenterView((ViewPagerLayoutManager) layoutManager,
+                        ((ViewPagerLayoutManager) layoutManager).onPageChangeListener);
+            }
+        }
+    }
+
+    protected void onTransitionFrame(@NonNull ViewPagerLayoutManager layoutManager) {
+        if (!transitionRunning) {
+            return;
+        }
+        final long elapsed = AnimationUtils.currentAnimationTimeMillis() - transitionStartTime;
+        final float fraction = Math.min(1f, (float) elapsed / transitionDuration);
+        final float offset = transitionStartOffset +
+                (transitionTargetOffset - transitionStartOffset) * transitionInterpolator.getInterpolation(fraction);
+        final int scroll = Math.round((offset - layoutManager.mOffset) * layoutManager.getDistanceRatio());
+        if (scroll != 0) {
+            layoutManager.mScrollInPlace = true;
+            try {
+                if (layoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL) {
+                    mRecyclerView.scrollBy(0, scroll);
+                } else {
+                    mRecyclerView.scrollBy(scroll, 0);
+                }
+            } finally {
+                layoutManager.mScrollInPlace = false;
+            }
+        }
+        if (fraction < 1f) {
+            ViewCompat.postOnAnimation(mRecyclerView, transitionFrameRunnable);
+            return;
+        }
+        transitionRunning = false;
+        // land exactly on the target, what is left is less than a pixel
+        layoutManager.updateOffsetInPlace(transitionTargetOffset);
+        // no scroll state change happens here, so notify the page selection by ourselves
+        onTransitionIdle(layoutManager);
+        if (layoutManager.onPageChangeListener != null) {
+            layoutManager.onPageChangeListener.onPageSelected(layoutManager.getCurrentPosition());
+        }
+    }
+
+    /**
+     * The recycler view stays idle during a transition, so tell what it would have told at the end of a scroll
+     */
+    private void onTransitionIdle(@NonNull ViewPagerLayoutManager layoutManager) {
+        // already on an item, nothing to snap
+        mScrolled = false;
+        layoutManager.onScrollIdle();
+        if (layoutManager.prefetchAdvisor != null) {
+            layoutManager.prefetchAdvisor.onScrollIdle();
+        }
+        if (layoutManager.onPageChangeListener != null) {
+            layoutManager.onPageChangeListener.onPageScrollStateChanged(RecyclerView.SCROLL_STATE_IDLE);
+        }
+    }
+
+    /**
+     * @return the layout position the next tick will scroll to
+     */
+    protected int getNextLayoutPosition(@NonNull ViewPagerLayoutManager layoutManager) {
         final int currentPosition =
                 layoutManager.getCurrentPositionOffset() *
                         (layoutManager.getReverseLayout() ? -1 : 1);
-        ScrollHelper.smoothScrollToPosition(mRecyclerView,
-                layoutManager, direction == RIGHT ? currentPosition + 1 : currentPosition - 1);
-        handler.postDelayed(autoPlayRunnable, timeInterval);
+        return direction == RIGHT ? currentPosition + 1 : currentPosition - 1;
+    }
+
+    /**
+     * @return the adapter position the next tick will scroll to, or {@link RecyclerView#NO_POSITION}
+     * if the adapter is empty or the tick won't move since the end of a non infinite list is reached
+     */
+    public int getNextAdapterPosition(@NonNull ViewPagerLayoutManager layoutManager) {
+        final int itemCount = layoutManager.getItemCount();
+        if (itemCount == 0) {
+            return RecyclerView.NO_POSITION;
+        }
+        final int nextPosition = getNextLayoutPosition(layoutManager);
+        if (!layoutManager.getInfinite() && (nextPosition < 0 || nextPosition >= itemCount)) {
+            return RecyclerView.NO_POSITION;
+        }
+        final int position = nextPosition % itemCount;
+        return position < 0 ? position + itemCount : position;
+    }
+
+    /**
+     * Tell the helper the item passed to {@link OnPrefetchListener#onPrefetch(int)} is ready,
+     * a tick which is waiting for it will be run at once.
+     *
+     * @param adapterPosition the position which is ready
+     */
+    public void notifyItemReady(int adapterPosition) {
+        if (adapterPosition != pendingPosition) {
+            return;
+        }
+        pendingReady = true;
+        if (waitingForReady) {
+            handler.removeCallbacks(readyTimeoutRunnable);
+            final RecyclerView.LayoutManager layoutManager = mRecyclerView == null ? null : mRecyclerView.getLayoutManager();
+            if (layoutManager instanceof ViewPagerLayoutManager) {
+                advance((ViewPagerLayoutManager) layoutManager);
+            }
+        }
     }
 
     public void pause() {
         if (runnableAdded) {
-            handler.removeCallbacks(autoPlayRunnable);
+            removeCallbacks();
             runnableAdded = false;
         }
     }
 
     public void start() {
         if (!runnableAdded) {
-            handler.postDelayed(autoPlayRunnable, timeInterval);
+            scheduleNext();
             runnableAdded = true;
         }
     }
 
+    public void setOnPrefetchListener(OnPrefetchListener onPrefetchListener) {
+        this.onPrefetchListener = onPrefetchListener;
+    }
+
+    /**
+     * @param prefetchLeadTime how long before each tick the prefetch is fired, 0 to disable prefetch.
+     *                         A lead time not shorter than the interval fires it right after the previous tick.
+     */
+    public void setPrefetchLeadTime(int prefetchLeadTime) {
+        if (prefetchLeadTime < 0) {
+            throw new IllegalArgumentException("prefetch lead time should not less than 0");
+        }
+        this.prefetchLeadTime = prefetchLeadTime;
+    }
+
+    public void setPrefetchTimeout(int prefetchTimeout) {
+        if (prefetchTimeout < 0) {
+            throw new IllegalArgumentException("prefetch timeout should not less than 0");
+        }
+        this.prefetchTimeout = prefetchTimeout;
+    }
+
     public void setTimeInterval(int timeInterval) {
         checkTimeInterval(timeInterval);
         this.timeInterval = timeInterval;
     }
 
+    /**
+     * @param transitionMode {@link #TRANSITION_SMOOTH_SCROLL} or {@link #TRANSITION_OFFSET_ANIMATION}
+     */
+    public void setTransitionMode(int transitionMode) {
+        if (transitionMode != TRANSITION_SMOOTH_SCROLL && transitionMode != TRANSITION_OFFSET_ANIMATION) {
+            throw new IllegalArgumentException("transition mode should be one of smooth scroll or offset animation");
+        }
+        this.transitionMode = transitionMode;
+    }
+
+    /**
+     * Only used by {@link #TRANSITION_OFFSET_ANIMATION}
+     */
+    public void setTransitionDuration(int transitionDuration) {
+        if (transitionDuration <= 0) {
+            throw new IllegalArgumentException("transition duration should greater than 0");
+        }
+        this.transitionDuration = transitionDuration;
+    }
+
+    /**
+     * Only used by {@link #TRANSITION_OFFSET_ANIMATION}
+     */
+    public void setTransitionInterpolator(@NonNull Interpolator transitionInterpolator) {
+        this.transitionInterpolator = transitionInterpolator;
+    }
+
     public void setDirection(int direction) {
         checkDirection(direction);
         this.direction = direction;
@@ -122,4 +420,13 @@ public class AutoPlaySnapHelper extends CenterSnapHelper {
             throw new IllegalArgumentException("time interval should greater than 0");
         }
     }
+
+    /**
+     * Called a lead time before each auto play tick with the adapter position it will scroll to.
+     * The tick waits until {@link #notifyItemReady(int)} is called with the same position,
+     * or until the prefetch timeout passes.
+     */
+    public interface OnPrefetchListener {
+        void onPrefetch(int adapterPosition);
+    }
 }
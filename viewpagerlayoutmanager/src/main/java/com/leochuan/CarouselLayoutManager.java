@@ -98,7 +98,7 @@ public class CarouselLayoutManager extends ViewPagerLayoutManager {
 
     @Override
     protected void setItemViewProperty(View itemView, float targetOffset) {
-        float scale = calculateScale(targetOffset + mSpaceMain);
+        float scale = calculateScale(targetOffset);
         itemView.setScaleX(scale);
         itemView.setScaleY(scale);
     }
@@ -116,9 +116,9 @@ public class CarouselLayoutManager extends ViewPagerLayoutManager {
         return itemView.getScaleX() * 5;
     }
 
-    private float calculateScale(float x) {
-        float deltaX = Math.abs(x - (mOrientationHelper.getTotalSpace() - mDecoratedMeasurement) / 2f);
-        return (minScale - 1) * deltaX / (mOrientationHelper.getTotalSpace() / 2f) + 1f;
+    private float calculateScale(float targetOffset) {
+        return ItemTransformKernel.carouselScale(targetOffset, mSpaceMain, mOrientationHelper.getTotalSpace(),
+                mDecoratedMeasurement, minScale);
     }
 
     public static class Builder {
@@ -1,6 +1,5 @@
 package com.leochuan;
 
-import android.util.Log;
 import android.view.animation.DecelerateInterpolator;
 import android.widget.Scroller;
 
@@ -33,6 +32,11 @@ public class CenterSnapHelper extends RecyclerView.OnFlingListener {
 
     protected int scrollStartPosition = RecyclerView.NO_POSITION;
 
+    /**
+     * Decides how many pages a fling moves, ignored when {@link #snapScrollOne} is true
+     */
+    protected SnapPolicy snapPolicy = SnapPolicy.free();
+
     // Handles the snap on scroll case.
     protected final RecyclerView.OnScrollListener mScrollListener =
             new RecyclerView.OnScrollListener() {
@@ -100,57 +104,54 @@ public class CenterSnapHelper extends RecyclerView.OnFlingListener {
             return false;
         }
 
-        final int minFlingVelocity = mRecyclerView.getMinFlingVelocity();
-        mGravityScroller.fling(0, 0, velocityX, velocityY,
-                Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
-
-        int currentPosition = scrollStartPosition;
-        if (currentPosition == RecyclerView.NO_POSITION) {
-            currentPosition = layoutManager.getCurrentPositionOffset();
-        }
-
-        int offsetPosition = RecyclerView.NO_POSITION;
-        int targetPosition = RecyclerView.NO_POSITION;
+        int currentPosition = getFlingStartPosition(layoutManager);
 
-        if (layoutManager.mOrientation == ViewPagerLayoutManager.VERTICAL
-                && Math.abs(velocityY) > minFlingVelocity) {
+        int offsetPosition;
+        int targetPosition;
 
-            if (snapScrollOne) {
-                if (velocityY > 0) {
-                    offsetPosition = 1;
-                } else {
-                    offsetPosition = -1;
-                }
-            } else {
-                offsetPosition = (int) (mGravityScroller.getFinalY() /
-                        layoutManager.mInterval / layoutManager.getDistanceRatio());
-            }
-
-        } else if (layoutManager.mOrientation == ViewPagerLayoutManager.HORIZONTAL
-                && Math.abs(velocityX) > minFlingVelocity) {
-
-            if (snapScrollOne) {
-                if (velocityX > 0) {
-                    offsetPosition = 1;
-                } else {
-                    offsetPosition = -1;
-                }
+        if (snapScrollOne) {
+            final int velocity = layoutManager.mOrientation == ViewPagerLayoutManager.VERTICAL ?
+                    velocityY : velocityX;
+            if (Math.abs(velocity) <= mRecyclerView.getMinFlingVelocity()) {
+                offsetPosition = 0;
             } else {
-                offsetPosition = (int) (mGravityScroller.getFinalX() /
-                        layoutManager.mInterval / layoutManager.getDistanceRatio());
+                offsetPosition = velocity > 0 ? 1 : -1;
             }
+        } else {
+            offsetPosition = snapPolicy.calculatePageDelta(layoutManager, mGravityScroller,
+                    velocityX, velocityY, mRecyclerView.getMinFlingVelocity());
         }
 
         targetPosition = layoutManager.getReverseLayout() ?
                 -currentPosition - offsetPosition : currentPosition + offsetPosition;
 
+        if (layoutManager.prefetchAdvisor != null) {
+            // estimated from the velocity the advisor tracked while dragging
+            layoutManager.prefetchAdvisor.onTargetPredicted(targetPosition, -1);
+        }
         ScrollHelper.smoothScrollToPosition(mRecyclerView, layoutManager, targetPosition);
 
-        Log.i("angcyo", currentPosition + "->" + targetPosition);
-
         return true;
     }
 
+    /**
+     * @return the position a fling is counted from
+     */
+    protected int getFlingStartPosition(@NonNull ViewPagerLayoutManager layoutManager) {
+        if (scrollStartPosition == RecyclerView.NO_POSITION) {
+            return layoutManager.getCurrentPositionOffset();
+        }
+        return scrollStartPosition;
+    }
+
+    public SnapPolicy getSnapPolicy() {
+        return snapPolicy;
+    }
+
+    public void setSnapPolicy(@NonNull SnapPolicy snapPolicy) {
+        this.snapPolicy = snapPolicy;
+    }
+
     /**
      * Please attach after {{@link androidx.recyclerview.widget.RecyclerView.LayoutManager} is setting}
      * Attaches the {@link CenterSnapHelper} to the provided RecyclerView, by calling
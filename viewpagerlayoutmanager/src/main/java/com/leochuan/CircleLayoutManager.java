@@ -227,13 +227,13 @@ public class CircleLayoutManager extends ViewPagerLayoutManager {
     protected int calItemLeft(View itemView, float targetOffset) {
         switch (gravity) {
             case LEFT:
-                return (int) (radius * Math.sin(Math.toRadians(90 - targetOffset)) - radius);
+                return ItemTransformKernel.circleAcross(radius, targetOffset);
             case RIGHT:
-                return (int) (radius - radius * Math.sin(Math.toRadians(90 - targetOffset)));
+                return -ItemTransformKernel.circleAcross(radius, targetOffset);
             case TOP:
             case BOTTOM:
             default:
-                return (int) (radius * Math.cos(Math.toRadians(90 - targetOffset)));
+                return ItemTransformKernel.circleAlong(radius, targetOffset);
         }
     }
 
@@ -242,36 +242,25 @@ public class CircleLayoutManager extends ViewPagerLayoutManager {
         switch (gravity) {
             case LEFT:
             case RIGHT:
-                return (int) (radius * Math.cos(Math.toRadians(90 - targetOffset)));
+                return ItemTransformKernel.circleAlong(radius, targetOffset);
             case TOP:
-                return (int) (radius * Math.sin(Math.toRadians(90 - targetOffset)) - radius);
+                return ItemTransformKernel.circleAcross(radius, targetOffset);
             case BOTTOM:
             default:
-                return (int) (radius - radius * Math.sin(Math.toRadians(90 - targetOffset)));
+                return -ItemTransformKernel.circleAcross(radius, targetOffset);
         }
     }
 
     @Override
     protected void setItemViewProperty(View itemView, float targetOffset) {
-        switch (gravity) {
-            case RIGHT:
-            case TOP:
-                if (flipRotate) {
-                    itemView.setRotation(targetOffset);
-                } else {
-                    itemView.setRotation(360 - targetOffset);
-                }
-                break;
-            case LEFT:
-            case BOTTOM:
-            default:
-                if (flipRotate) {
-                    itemView.setRotation(360 - targetOffset);
-                } else {
-                    itemView.setRotation(targetOffset);
-                }
-                break;
-        }
+        itemView.setRotation(ItemTransformKernel.circleRotation(targetOffset, isClockwise()));
+    }
+
+    /**
+     * Items on the right or the top rotate anticlockwise unless flipped, the others the other way
+     */
+    private boolean isClockwise() {
+        return gravity == RIGHT || gravity == TOP ? flipRotate : !flipRotate;
     }
 
     @Override
@@ -220,13 +220,13 @@ public class CircleScaleLayoutManager extends ViewPagerLayoutManager {
     protected int calItemLeft(View itemView, float targetOffset) {
         switch (gravity) {
             case LEFT:
-                return (int) (radius * Math.sin(Math.toRadians(90 - targetOffset)) - radius);
+                return ItemTransformKernel.circleAcross(radius, targetOffset);
             case RIGHT:
-                return (int) (radius - radius * Math.sin(Math.toRadians(90 - targetOffset)));
+                return -ItemTransformKernel.circleAcross(radius, targetOffset);
             case TOP:
             case BOTTOM:
             default:
-                return (int) (radius * Math.cos(Math.toRadians(90 - targetOffset)));
+                return ItemTransformKernel.circleAlong(radius, targetOffset);
         }
     }
 
@@ -235,57 +235,30 @@ public class CircleScaleLayoutManager extends ViewPagerLayoutManager {
         switch (gravity) {
             case LEFT:
             case RIGHT:
-                return (int) (radius * Math.cos(Math.toRadians(90 - targetOffset)));
+                return ItemTransformKernel.circleAlong(radius, targetOffset);
             case TOP:
-                return (int) (radius * Math.sin(Math.toRadians(90 - targetOffset)) - radius);
+                return ItemTransformKernel.circleAcross(radius, targetOffset);
             case BOTTOM:
             default:
-                return (int) (radius - radius * Math.sin(Math.toRadians(90 - targetOffset)));
+                return -ItemTransformKernel.circleAcross(radius, targetOffset);
         }
     }
 
     @Override
     protected void setItemViewProperty(View itemView, float targetOffset) {
-        float scale = 1f;
-        switch (gravity) {
-            case RIGHT:
-            case TOP:
-                if (flipRotate) {
-                    itemView.setRotation(targetOffset);
-                    if (targetOffset < angleInterval && targetOffset > -angleInterval) {
-                        float diff = Math.abs(Math.abs(itemView.getRotation() - angleInterval) - angleInterval);
-                        scale = (centerScale - 1f) / -angleInterval * diff + centerScale;
-                    }
-                } else {
-                    itemView.setRotation(360 - targetOffset);
-                    if (targetOffset < angleInterval && targetOffset > -angleInterval) {
-                        float diff = Math.abs(Math.abs(360 - itemView.getRotation() - angleInterval) - angleInterval);
-                        scale = (centerScale - 1f) / -angleInterval * diff + centerScale;
-                    }
-                }
-                break;
-            case LEFT:
-            case BOTTOM:
-            default:
-                if (flipRotate) {
-                    itemView.setRotation(360 - targetOffset);
-                    if (targetOffset < angleInterval && targetOffset > -angleInterval) {
-                        float diff = Math.abs(Math.abs(360 - itemView.getRotation() - angleInterval) - angleInterval);
-                        scale = (centerScale - 1f) / -angleInterval * diff + centerScale;
-                    }
-                } else {
-                    itemView.setRotation(targetOffset);
-                    if (targetOffset < angleInterval && targetOffset > -angleInterval) {
-                        float diff = Math.abs(Math.abs(itemView.getRotation() - angleInterval) - angleInterval);
-                        scale = (centerScale - 1f) / -angleInterval * diff + centerScale;
-                    }
-                }
-                break;
-        }
+        itemView.setRotation(ItemTransformKernel.circleRotation(targetOffset, isClockwise()));
+        final float scale = ItemTransformKernel.circleCenterScale(targetOffset, angleInterval, centerScale);
         itemView.setScaleX(scale);
         itemView.setScaleY(scale);
     }
 
+    /**
+     * Items on the right or the top rotate anticlockwise unless flipped, the others the other way
+     */
+    private boolean isClockwise() {
+        return gravity == RIGHT || gravity == TOP ? flipRotate : !flipRotate;
+    }
+
     @Override
     protected float getViewElevation(View itemView, float targetOffset) {
         if (zAlignment == LEFT_ON_TOP) {
@@ -0,0 +1,315 @@
+package com.leochuan;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * An implementation of {@link ViewPagerLayoutManager}
+ * which layouts items around a cylinder facing the screen, like cover flow.
+ * <p>
+ * Neighbours are {@link #getAngle()} degrees apart on the cylinder, whose radius makes the arc between
+ * them as long as the interval. Items only rotate and move while scrolling, the camera distance and pivots
+ * are written only when they change, and everything else about a frame is computed in {@link #setUpOnLayout()}.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class CoverFlowLayoutManager extends ViewPagerLayoutManager {
+    private static final float MAX_ELEVATION = 5f;
+
+    private int itemSpace;
+    private float angle;
+    private float maxAngle;
+    private float cameraDistanceRatio;
+    private float moveSpeed;
+
+    // computed once per layout
+    private float radius;
+    private float anglePerOffset;
+    private float cameraDistance;
+
+    public CoverFlowLayoutManager(Context context, int itemSpace) {
+        this(new Builder(context, itemSpace));
+    }
+
+    public CoverFlowLayoutManager(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        this(context, 0);
+    }
+
+    public CoverFlowLayoutManager(Context context, int itemSpace, int orientation) {
+        this(new Builder(context, itemSpace).setOrientation(orientation));
+    }
+
+    public CoverFlowLayoutManager(Context context, int itemSpace, int orientation, boolean reverseLayout) {
+        this(new Builder(context, itemSpace).setOrientation(orientation).setReverseLayout(reverseLayout));
+    }
+
+    public CoverFlowLayoutManager(Builder builder) {
+        this(builder.context, builder.itemSpace, builder.angle, builder.maxAngle, builder.cameraDistanceRatio,
+                builder.orientation, builder.moveSpeed, builder.distanceToBottom, builder.reverseLayout);
+    }
+
+    private CoverFlowLayoutManager(Context context, int itemSpace, float angle, float maxAngle,
+                                   float cameraDistanceRatio, int orientation, float moveSpeed,
+                                   int distanceToBottom, boolean reverseLayout) {
+        super(context, orientation, reverseLayout);
+        checkAngle(angle, maxAngle);
+        setEnableBringCenterToFront(true);
+        setDistanceToBottom(distanceToBottom);
+        this.itemSpace = itemSpace;
+        this.angle = angle;
+        this.maxAngle = maxAngle;
+        this.cameraDistanceRatio = cameraDistanceRatio;
+        this.moveSpeed = moveSpeed;
+    }
+
+    public int getItemSpace() {
+        return itemSpace;
+    }
+
+    public float getAngle() {
+        return angle;
+    }
+
+    public float getMaxAngle() {
+        return maxAngle;
+    }
+
+    public float getCameraDistanceRatio() {
+        return cameraDistanceRatio;
+    }
+
+    public float getMoveSpeed() {
+        return moveSpeed;
+    }
+
+    public void setItemSpace(int itemSpace) {
+        assertNotInLayoutOrScroll(null);
+        if (this.itemSpace == itemSpace) {
+            return;
+        }
+        this.itemSpace = itemSpace;
+        removeAllViews();
+    }
+
+    public void setAngle(float angle) {
+        assertNotInLayoutOrScroll(null);
+        checkAngle(angle, maxAngle);
+        if (this.angle == angle) {
+            return;
+        }
+        this.angle = angle;
+        requestLayout();
+    }
+
+    public void setMaxAngle(float maxAngle) {
+        assertNotInLayoutOrScroll(null);
+        checkAngle(angle, maxAngle);
+        if (this.maxAngle == maxAngle) {
+            return;
+        }
+        this.maxAngle = maxAngle;
+        requestLayout();
+    }
+
+    public void setCameraDistanceRatio(float cameraDistanceRatio) {
+        assertNotInLayoutOrScroll(null);
+        if (this.cameraDistanceRatio == cameraDistanceRatio) {
+            return;
+        }
+        this.cameraDistanceRatio = cameraDistanceRatio;
+        requestLayout();
+    }
+
+    public void setMoveSpeed(float moveSpeed) {
+        assertNotInLayoutOrScroll(null);
+        if (this.moveSpeed == moveSpeed) {
+            return;
+        }
+        this.moveSpeed = moveSpeed;
+    }
+
+    @Override
+    protected float getInterval() {
+        return mDecoratedMeasurement + itemSpace;
+    }
+
+    @Override
+    protected void setUpOnLayout() {
+        final float radian = (float) Math.toRadians(angle);
+        radius = mInterval / radian;
+        anglePerOffset = mInterval == 0 ? 0 : angle / mInterval;
+        cameraDistance = Math.max(mDecoratedMeasurement, mDecoratedMeasurementInOther) * cameraDistanceRatio;
+    }
+
+    @Override
+    protected float maxRemoveOffset() {
+        return anglePerOffset == 0 ? mInterval : maxAngle / anglePerOffset;
+    }
+
+    @Override
+    protected float minRemoveOffset() {
+        return -maxRemoveOffset();
+    }
+
+    @Override
+    protected int calItemLeft(View itemView, float targetOffset) {
+        return mOrientation == VERTICAL ? 0 : calItemMain(targetOffset);
+    }
+
+    @Override
+    protected int calItemTop(View itemView, float targetOffset) {
+        return mOrientation == VERTICAL ? calItemMain(targetOffset) : 0;
+    }
+
+    /**
+     * Rotations are written on every frame and nothing else is, so the properties are only reset
+     * the first time a view is laid out here, which is when it has no camera distance tag yet.
+     * Views which go through a pool shared with other layout managers after that keep what those left.
+     */
+    @Override
+    protected void resetViewProperty(View view) {
+        if (view.getTag(R.id.cover_flow_camera_distance) == null) {
+            super.resetViewProperty(view);
+        }
+    }
+
+    @Override
+    protected void setItemViewProperty(View itemView, float targetOffset) {
+        // getCameraDistance() doesn't give back what was set, it is converted with the screen density,
+        // so remember the applied value on the view
+        final Object appliedCameraDistance = itemView.getTag(R.id.cover_flow_camera_distance);
+        if (!(appliedCameraDistance instanceof Float) || (Float) appliedCameraDistance != cameraDistance) {
+            itemView.setCameraDistance(cameraDistance);
+            itemView.setTag(R.id.cover_flow_camera_distance, cameraDistance);
+        }
+        final float pivotX = itemView.getWidth() * 0.5f;
+        final float pivotY = itemView.getHeight() * 0.5f;
+        if (itemView.getPivotX() != pivotX) {
+            itemView.setPivotX(pivotX);
+        }
+        if (itemView.getPivotY() != pivotY) {
+            itemView.setPivotY(pivotY);
+        }
+
+        final float rotation = calAngle(targetOffset);
+        if (mOrientation == HORIZONTAL) {
+            itemView.setRotationY(rotation);
+        } else {
+            itemView.setRotationX(-rotation);
+        }
+    }
+
+    @Override
+    protected float getViewElevation(View itemView, float targetOffset) {
+        return (float) Math.cos(Math.toRadians(calAngle(targetOffset))) * MAX_ELEVATION;
+    }
+
+    @Override
+    protected float getDistanceRatio() {
+        if (moveSpeed == 0) {
+            return Float.MAX_VALUE;
+        }
+        return 1 / moveSpeed;
+    }
+
+    private float calAngle(float targetOffset) {
+        return ItemTransformKernel.cylinderAngle(targetOffset, anglePerOffset, maxAngle);
+    }
+
+    /**
+     * Project the item onto the screen from its place on the cylinder
+     */
+    private int calItemMain(float targetOffset) {
+        return ItemTransformKernel.cylinderProjection(radius, calAngle(targetOffset));
+    }
+
+    private static void checkAngle(float angle, float maxAngle) {
+        if (angle <= 0 || maxAngle < 0 || maxAngle >= 90) {
+            throw new IllegalArgumentException("angle should be positive and max angle should between 0 and 90");
+        }
+    }
+
+    public static class Builder {
+        private static final float DEFAULT_SPEED = 1f;
+        private static final float INTERVAL_ANGLE = 30f;
+        private static final float MAX_ANGLE = 75f;
+        private static final float CAMERA_DISTANCE_RATIO = 8f;
+
+        private Context context;
+        private int itemSpace;
+        private float angle;
+        private float maxAngle;
+        private float cameraDistanceRatio;
+        private int orientation;
+        private float moveSpeed;
+        private boolean reverseLayout;
+        private int distanceToBottom;
+
+        public Builder(Context context, int itemSpace) {
+            this.itemSpace = itemSpace;
+            this.context = context;
+            angle = INTERVAL_ANGLE;
+            maxAngle = MAX_ANGLE;
+            cameraDistanceRatio = CAMERA_DISTANCE_RATIO;
+            orientation = HORIZONTAL;
+            moveSpeed = DEFAULT_SPEED;
+            reverseLayout = false;
+            distanceToBottom = ViewPagerLayoutManager.INVALID_SIZE;
+        }
+
+        /**
+         * @param angle degrees between two neighbours on the cylinder
+         */
+        public Builder setAngle(float angle) {
+            this.angle = angle;
+            return this;
+        }
+
+        /**
+         * @param maxAngle items rotated more than this are removed, it should be less than 90
+         */
+        public Builder setMaxAngle(float maxAngle) {
+            this.maxAngle = maxAngle;
+            return this;
+        }
+
+        /**
+         * @param cameraDistanceRatio camera distance in times of the item size,
+         *                            larger value means less perspective distortion
+         */
+        public Builder setCameraDistanceRatio(float cameraDistanceRatio) {
+            this.cameraDistanceRatio = cameraDistanceRatio;
+            return this;
+        }
+
+        public Builder setItemSpace(int itemSpace) {
+            this.itemSpace = itemSpace;
+            return this;
+        }
+
+        public Builder setOrientation(int orientation) {
+            this.orientation = orientation;
+            return this;
+        }
+
+        public Builder setMoveSpeed(float moveSpeed) {
+            this.moveSpeed = moveSpeed;
+            return this;
+        }
+
+        public Builder setReverseLayout(boolean reverseLayout) {
+            this.reverseLayout = reverseLayout;
+            return this;
+        }
+
+        public Builder setDistanceToBottom(int distanceToBottom) {
+            this.distanceToBottom = distanceToBottom;
+            return this;
+        }
+
+        public CoverFlowLayoutManager build() {
+            return new CoverFlowLayoutManager(this);
+        }
+    }
+}
@@ -161,6 +161,10 @@ public class GalleryLayoutManager extends ViewPagerLayoutManager {
 
     @Override
     protected void setItemViewProperty(View itemView, float targetOffset) {
+        if (isQualityDegraded()) {
+            // flat and opaque, as left by resetViewProperty
+            return;
+        }
         final float rotation = calRotation(targetOffset);
         if (getOrientation() == HORIZONTAL) {
             if (rotateFromEdge) {
@@ -189,7 +193,8 @@ public class GalleryLayoutManager extends ViewPagerLayoutManager {
 
     @Override
     protected float getViewElevation(View itemView, float targetOffset) {
-        final float ele = Math.max(Math.abs(itemView.getRotationX()), Math.abs(itemView.getRotationY())) * MAX_ELEVATION / 360;
+        // computed rather than read back from the view, which isn't rotated in degraded quality
+        final float ele = Math.abs(calRotation(targetOffset)) * MAX_ELEVATION / 360;
         return MAX_ELEVATION - ele;
     }
 
@@ -202,16 +207,11 @@ public class GalleryLayoutManager extends ViewPagerLayoutManager {
     }
 
     private float calRotation(float targetOffset) {
-        return -angle / mInterval * targetOffset;
+        return ItemTransformKernel.linearRotation(targetOffset, mInterval, -angle);
     }
 
     private float calAlpha(float targetOffset) {
-        final float offset = Math.abs(targetOffset);
-        float alpha = (minAlpha - maxAlpha) / mInterval * offset + maxAlpha;
-        if (offset >= mInterval) {
-            alpha = minAlpha;
-        }
-        return alpha;
+        return ItemTransformKernel.fadeAlpha(targetOffset, mInterval, minAlpha, maxAlpha);
     }
 
     public static class Builder {
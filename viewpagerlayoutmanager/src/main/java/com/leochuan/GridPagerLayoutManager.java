@@ -0,0 +1,299 @@
+package com.leochuan;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * An implementation of {@link ViewPagerLayoutManager}
+ * which layouts items in pages of rows * columns cells.
+ * <p>
+ * Each page fills the recycler view, cells are filled row by row, from right to left in RTL,
+ * and measured to exactly the size of a cell.
+ * Positions of the offset model, like {@link #getCurrentPosition()}, are pages,
+ * so use it with {@link PageSnapHelper} to snap page by page.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class GridPagerLayoutManager extends ViewPagerLayoutManager {
+
+    private int rows;
+    private int columns;
+    /**
+     * Attached cells keyed by their layout position, which is layout page * page size + index in page
+     */
+    private SparseArray<View> cellCache = new SparseArray<>();
+
+    public GridPagerLayoutManager(Context context, int rows, int columns) {
+        this(new Builder(context, rows, columns));
+    }
+
+    public GridPagerLayoutManager(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        this(context, 1, 1);
+    }
+
+    public GridPagerLayoutManager(Context context, int rows, int columns, int orientation) {
+        this(new Builder(context, rows, columns).setOrientation(orientation));
+    }
+
+    public GridPagerLayoutManager(Context context, int rows, int columns, int orientation, boolean reverseLayout) {
+        this(new Builder(context, rows, columns).setOrientation(orientation).setReverseLayout(reverseLayout));
+    }
+
+    public GridPagerLayoutManager(Builder builder) {
+        super(builder.context, builder.orientation, builder.reverseLayout);
+        checkSpan(builder.rows, builder.columns);
+        this.rows = builder.rows;
+        this.columns = builder.columns;
+        // cells of the next page are prefetched, see collectAdjacentPrefetchPositions
+        setItemPrefetchEnabled(true);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getPageSize() {
+        return rows * columns;
+    }
+
+    public void setRows(int rows) {
+        assertNotInLayoutOrScroll(null);
+        checkSpan(rows, columns);
+        if (this.rows == rows) {
+            return;
+        }
+        this.rows = rows;
+        requestLayout();
+    }
+
+    public void setColumns(int columns) {
+        assertNotInLayoutOrScroll(null);
+        checkSpan(rows, columns);
+        if (this.columns == columns) {
+            return;
+        }
+        this.columns = columns;
+        requestLayout();
+    }
+
+    @Override
+    protected float getInterval() {
+        return mOrientationHelper.getTotalSpace();
+    }
+
+    @Override
+    protected float maxRemoveOffset() {
+        return mInterval;
+    }
+
+    @Override
+    protected float minRemoveOffset() {
+        return -mInterval;
+    }
+
+    @Override
+    protected void setItemViewProperty(View itemView, float targetOffset) {
+
+    }
+
+    @Override
+    protected int getPageCount() {
+        final int pageSize = getPageSize();
+        return (getItemCount() + pageSize - 1) / pageSize;
+    }
+
+    @Override
+    protected int getPageOfItem(int position) {
+        return position / getPageSize();
+    }
+
+    @Override
+    protected int getFirstItemOfPage(int page) {
+        return page * getPageSize();
+    }
+
+    @Override
+    protected int getRecycledViewPoolSize() {
+        // two pages are seen while scrolling
+        return getPageSize() * 2;
+    }
+
+    @Override
+    protected void layoutItems(@NonNull RecyclerView.Recycler recycler) {
+        detachAndScrapAttachedViews(recycler);
+        cellCache.clear();
+
+        final int itemCount = getItemCount();
+        if (itemCount == 0 || mInterval == 0) {
+            removeAndRecycleAllViews(recycler);
+            return;
+        }
+
+        // the current page and the ones next to it are all that can be seen
+        final int pageCount = getPageCount();
+        final int currentPage = shouldReverseLayout() ? -getCurrentPositionOffset() : getCurrentPositionOffset();
+        int start = currentPage - 1;
+        int end = currentPage + 2;
+        if (!getInfinite()) {
+            start = Math.max(start, 0);
+            end = Math.min(end, pageCount);
+        }
+
+        final int pageSize = getPageSize();
+        final int cellWidth = getCellWidth();
+        final int cellHeight = getCellHeight();
+        // columns run from right to left in RTL, like the pages
+        final boolean rtl = isLayoutRTL();
+        for (int page = start; page < end; page++) {
+            final float targetOffset = getProperty(page) - mOffset;
+            final int pageLeft = getPaddingLeft() + (mOrientation == VERTICAL ? 0 : (int) targetOffset);
+            final int pageTop = getPaddingTop() + (mOrientation == VERTICAL ? (int) targetOffset : 0);
+            final int firstItem = getFirstItemOfPage(PagerLayoutKernel.toAdapterPosition(page, pageCount));
+            for (int cell = 0; cell < pageSize && firstItem + cell < itemCount; cell++) {
+                final int column = rtl ? columns - 1 - cell % columns : cell % columns;
+                final int left = pageLeft + column * cellWidth;
+                final int top = pageTop + cell / columns * cellHeight;
+                if (!isCellVisible(left, top, cellWidth, cellHeight)) {
+                    // cells are recycled one by one, a page can be partly attached
+                    continue;
+                }
+                final View scrap = recycler.getViewForPosition(firstItem + cell);
+                addView(scrap);
+                resetViewProperty(scrap);
+                measureChildExactly(scrap, cellWidth, cellHeight);
+                layoutDecoratedWithMargins(scrap, left, top, left + cellWidth, top + cellHeight);
+                setItemViewProperty(scrap, targetOffset);
+                cellCache.put(page * pageSize + cell, scrap);
+            }
+        }
+
+        List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        for (int i = scrapList.size() - 1; i >= 0; i--) {
+            removeAndRecycleView(scrapList.get(i).itemView, recycler);
+        }
+    }
+
+    @Override
+    boolean updateOffsetInPlace(float offset) {
+        // cells come and go one by one, so let a layout place them
+        mOffset = offset;
+        requestLayout();
+        return false;
+    }
+
+    @Override
+    public View findViewByPosition(int position) {
+        for (int i = 0; i < cellCache.size(); i++) {
+            final View view = cellCache.valueAt(i);
+            if (getPosition(view) == position) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the layout page of the view, so {@link ScrollHelper#smoothScrollToTargetView(RecyclerView, View)}
+     * scrolls to the page containing it
+     */
+    @Override
+    public int getLayoutPositionOfView(View view) {
+        final int index = cellCache.indexOfValue(view);
+        if (index < 0) {
+            return -1;
+        }
+        final int key = cellCache.keyAt(index);
+        final int pageSize = getPageSize();
+        // round towards negative infinity, pages can be negative in infinite mode
+        return key >= 0 ? key / pageSize : (key + 1) / pageSize - 1;
+    }
+
+    @Override
+    public void collectAdjacentPrefetchPositions(int dx, int dy, RecyclerView.State state,
+                                                 LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        final int delta = mOrientation == VERTICAL ? dy : dx;
+        final int itemCount = getItemCount();
+        if (getChildCount() == 0 || delta == 0 || itemCount == 0) {
+            return;
+        }
+        final int currentPage = getCurrentPosition();
+        final boolean forward = (delta > 0) != shouldReverseLayout();
+        int nextPage = forward ? currentPage + 1 : currentPage - 1;
+        final int pageCount = getPageCount();
+        if (nextPage < 0 || nextPage >= pageCount) {
+            if (!getInfinite()) {
+                return;
+            }
+            nextPage = PagerLayoutKernel.toAdapterPosition(nextPage, pageCount);
+        }
+        final int firstItem = getFirstItemOfPage(nextPage);
+        for (int cell = 0; cell < getPageSize() && firstItem + cell < itemCount; cell++) {
+            // cells closer to the current page come into sight earlier
+            final int distance = mOrientation == VERTICAL ?
+                    cell / columns * getCellHeight() : cell % columns * getCellWidth();
+            layoutPrefetchRegistry.addPosition(firstItem + cell, distance);
+        }
+    }
+
+    private int getCellWidth() {
+        final int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        return width / columns;
+    }
+
+    private int getCellHeight() {
+        final int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        return height / rows;
+    }
+
+    private boolean isCellVisible(int left, int top, int width, int height) {
+        return left < getWidth() - getPaddingRight() && top < getHeight() - getPaddingBottom()
+                && left + width > getPaddingLeft() && top + height > getPaddingTop();
+    }
+
+    private static void checkSpan(int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("rows and columns should be at least 1");
+        }
+    }
+
+    public static class Builder {
+        private Context context;
+        private int rows;
+        private int columns;
+        private int orientation;
+        private boolean reverseLayout;
+
+        public Builder(Context context, int rows, int columns) {
+            this.context = context;
+            this.rows = rows;
+            this.columns = columns;
+            orientation = HORIZONTAL;
+            reverseLayout = false;
+        }
+
+        public Builder setOrientation(int orientation) {
+            this.orientation = orientation;
+            return this;
+        }
+
+        public Builder setReverseLayout(boolean reverseLayout) {
+            this.reverseLayout = reverseLayout;
+            return this;
+        }
+
+        public GridPagerLayoutManager build() {
+            return new GridPagerLayoutManager(this);
+        }
+    }
+}
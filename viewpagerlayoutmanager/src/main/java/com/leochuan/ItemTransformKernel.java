@@ -0,0 +1,150 @@
+package com.leochuan;
+
+/**
+ * The offset to geometry and transform math of the layout managers, run for every item on every frame.
+ * <p>
+ * Like {@link PagerLayoutKernel} it depends on nothing but plain java, so it can be benchmarked off device.
+ * A target offset is the distance from an item to the center, as given to
+ * {@link ViewPagerLayoutManager#setItemViewProperty(android.view.View, float)}.
+ */
+public final class ItemTransformKernel {
+
+    private ItemTransformKernel() {
+    }
+
+    /**
+     * Used by {@link ScaleLayoutManager}
+     *
+     * @return maxScale at the center, down to minScale one measurement away from it
+     */
+    public static float linearScale(float targetOffset, float measurement, float minScale, float maxScale) {
+        final float distance = Math.min(Math.abs(targetOffset), measurement);
+        return maxScale - distance / measurement * (maxScale - minScale);
+    }
+
+    /**
+     * Used by {@link ScaleLayoutManager} and {@link GalleryLayoutManager}
+     *
+     * @return maxAlpha at the center, down to minAlpha one interval away from it
+     */
+    public static float fadeAlpha(float targetOffset, float interval, float minAlpha, float maxAlpha) {
+        final float offset = Math.abs(targetOffset);
+        if (offset >= interval) {
+            return minAlpha;
+        }
+        return (minAlpha - maxAlpha) / interval * offset + maxAlpha;
+    }
+
+    /**
+     * Used by {@link GalleryLayoutManager} and {@link RotateLayoutManager}
+     *
+     * @return the rotation in degrees, angle for each interval away from the center
+     */
+    public static float linearRotation(float targetOffset, float interval, float angle) {
+        return angle / interval * targetOffset;
+    }
+
+    /**
+     * Used by {@link CarouselLayoutManager}
+     *
+     * @param spaceMain  where the item starts when it is centered
+     * @param totalSpace size of the recycler view along the scroll direction, without padding
+     * @return 1 at the center, down to minScale half the total space away from it
+     */
+    public static float carouselScale(float targetOffset, int spaceMain, int totalSpace, int measurement,
+                                      float minScale) {
+        final float distance = Math.abs(targetOffset + spaceMain - (totalSpace - measurement) / 2f);
+        return (minScale - 1) * distance / (totalSpace / 2f) + 1f;
+    }
+
+    /**
+     * Used by {@link CircleLayoutManager} and {@link CircleScaleLayoutManager}
+     *
+     * @param angle the target offset, in degrees from the center of the circle
+     * @return how far the item moves along the side the circle sits on
+     */
+    public static int circleAlong(double radius, float angle) {
+        return (int) (radius * Math.cos(Math.toRadians(90 - angle)));
+    }
+
+    /**
+     * Used by {@link CircleLayoutManager} and {@link CircleScaleLayoutManager}
+     *
+     * @param angle the target offset, in degrees from the center of the circle
+     * @return how far the item moves towards the side the circle sits on, 0 or negative,
+     * negate it when the circle sits on the right or the bottom
+     */
+    public static int circleAcross(double radius, float angle) {
+        return (int) (radius * Math.sin(Math.toRadians(90 - angle)) - radius);
+    }
+
+    /**
+     * Used by {@link CircleLayoutManager} and {@link CircleScaleLayoutManager}
+     *
+     * @return the rotation of the item, following the circle in the given direction
+     */
+    public static float circleRotation(float angle, boolean clockwise) {
+        return clockwise ? angle : 360 - angle;
+    }
+
+    /**
+     * Used by {@link CircleScaleLayoutManager}
+     *
+     * @return centerScale at the center, down to 1 one angle interval away from it
+     */
+    public static float circleCenterScale(float angle, float angleInterval, float centerScale) {
+        if (angle >= angleInterval || angle <= -angleInterval) {
+            return 1f;
+        }
+        final float diff = Math.abs(Math.abs(angle - angleInterval) - angleInterval);
+        return (centerScale - 1f) / -angleInterval * diff + centerScale;
+    }
+
+    /**
+     * Used by {@link StackLayoutManager}
+     *
+     * @return how deep the card is in the stack, from 0 for the top one to stack count - 1,
+     * cards deeper than that stay under the last one so they are never seen
+     */
+    public static float stackDepth(float targetOffset, float interval, int stackCount, boolean reverse) {
+        if (interval == 0) {
+            return 0;
+        }
+        final float depth = (reverse ? -targetOffset : targetOffset) / interval;
+        if (depth <= 0) {
+            return 0;
+        }
+        return Math.min(depth, stackCount - 1);
+    }
+
+    /**
+     * Used by {@link StackLayoutManager}, cards leaving the top move with the finger, the others stay in the stack
+     *
+     * @param depth the result of {@link #stackDepth(float, float, int, boolean)}
+     */
+    public static int stackMain(float targetOffset, float depth, int stackOffset, boolean reverse) {
+        if (depth == 0) {
+            return (int) targetOffset;
+        }
+        final int main = (int) (stackOffset * depth);
+        return reverse ? -main : main;
+    }
+
+    /**
+     * Used by {@link CoverFlowLayoutManager}
+     *
+     * @return the angle of the item on the cylinder, no further than maxAngle from the center
+     */
+    public static float cylinderAngle(float targetOffset, float anglePerOffset, float maxAngle) {
+        return Math.max(-maxAngle, Math.min(maxAngle, targetOffset * anglePerOffset));
+    }
+
+    /**
+     * Used by {@link CoverFlowLayoutManager}
+     *
+     * @return where the item at the angle on the cylinder is projected onto the screen
+     */
+    public static int cylinderProjection(double radius, float angle) {
+        return (int) (radius * Math.sin(Math.toRadians(angle)));
+    }
+}
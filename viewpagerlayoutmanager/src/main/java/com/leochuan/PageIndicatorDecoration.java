@@ -0,0 +1,218 @@
+package com.leochuan;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * An {@link RecyclerView.ItemDecoration} which draws a dot for each page of a {@link ViewPagerLayoutManager}
+ * over the items, at the bottom for horizontal layouts and at the end for vertical ones.
+ * <p>
+ * The current dot follows {@link ViewPagerLayoutManager#getPagePosition()} while scrolling, so it moves
+ * smoothly between two dots, including from the last page to the first one in infinite mode.
+ * Nothing is allocated while drawing.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class PageIndicatorDecoration extends RecyclerView.ItemDecoration {
+
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private int color;
+    private int selectedColor;
+    private float radius;
+    private float selectedRadius;
+    private float spacing;
+    private float margin;
+
+    public PageIndicatorDecoration() {
+        this(new Builder());
+    }
+
+    public PageIndicatorDecoration(Builder builder) {
+        this.color = builder.color;
+        this.selectedColor = builder.selectedColor;
+        this.radius = builder.radius;
+        this.selectedRadius = builder.selectedRadius;
+        this.spacing = builder.spacing;
+        this.margin = builder.margin;
+        paint.setStyle(Paint.Style.FILL);
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (!(layoutManager instanceof ViewPagerLayoutManager)) {
+            return;
+        }
+        final ViewPagerLayoutManager viewPagerLayoutManager = (ViewPagerLayoutManager) layoutManager;
+        final int pageCount = viewPagerLayoutManager.getPageCount();
+        if (pageCount <= 1) {
+            return;
+        }
+
+        final float pagePosition = viewPagerLayoutManager.getPagePosition();
+        // float rounding may land exactly on the page count
+        final int current = (int) pagePosition % pageCount;
+        final float fraction = pagePosition - (int) pagePosition;
+        final int next = current + 1 == pageCount ? 0 : current + 1;
+
+        final boolean vertical = viewPagerLayoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL;
+        final float length = (pageCount - 1) * spacing;
+        final float start = ((vertical ? parent.getHeight() : parent.getWidth()) - length) / 2f;
+        final float across = (vertical ? parent.getWidth() : parent.getHeight()) - margin;
+        for (int i = 0; i < pageCount; i++) {
+            final float selection;
+            if (i == current) {
+                selection = 1 - fraction;
+            } else if (i == next) {
+                selection = fraction;
+            } else {
+                selection = 0;
+            }
+            paint.setColor(blendColor(color, selectedColor, selection));
+            final float dotRadius = radius + (selectedRadius - radius) * selection;
+            final float along = start + i * spacing;
+            if (vertical) {
+                c.drawCircle(across, along, dotRadius, paint);
+            } else {
+                c.drawCircle(along, across, dotRadius, paint);
+            }
+        }
+    }
+
+    private static int blendColor(int from, int to, float fraction) {
+        if (fraction <= 0) {
+            return from;
+        }
+        if (fraction >= 1) {
+            return to;
+        }
+        return Color.argb(
+                (int) (Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * fraction),
+                (int) (Color.red(from) + (Color.red(to) - Color.red(from)) * fraction),
+                (int) (Color.green(from) + (Color.green(to) - Color.green(from)) * fraction),
+                (int) (Color.blue(from) + (Color.blue(to) - Color.blue(from)) * fraction));
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public void setColor(@ColorInt int color) {
+        this.color = color;
+    }
+
+    public int getSelectedColor() {
+        return selectedColor;
+    }
+
+    public void setSelectedColor(@ColorInt int selectedColor) {
+        this.selectedColor = selectedColor;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    public float getSelectedRadius() {
+        return selectedRadius;
+    }
+
+    public void setSelectedRadius(float selectedRadius) {
+        this.selectedRadius = selectedRadius;
+    }
+
+    public float getSpacing() {
+        return spacing;
+    }
+
+    public void setSpacing(float spacing) {
+        this.spacing = spacing;
+    }
+
+    public float getMargin() {
+        return margin;
+    }
+
+    public void setMargin(float margin) {
+        this.margin = margin;
+    }
+
+    public static class Builder {
+        private static final int DEFAULT_COLOR = 0x80ffffff;
+        private static final int DEFAULT_SELECTED_COLOR = Color.WHITE;
+        private static final float DEFAULT_RADIUS = 6f;
+        private static final float DEFAULT_SELECTED_RADIUS = 8f;
+        private static final float DEFAULT_SPACING = 32f;
+        private static final float DEFAULT_MARGIN = 32f;
+
+        private int color;
+        private int selectedColor;
+        private float radius;
+        private float selectedRadius;
+        private float spacing;
+        private float margin;
+
+        public Builder() {
+            color = DEFAULT_COLOR;
+            selectedColor = DEFAULT_SELECTED_COLOR;
+            radius = DEFAULT_RADIUS;
+            selectedRadius = DEFAULT_SELECTED_RADIUS;
+            spacing = DEFAULT_SPACING;
+            margin = DEFAULT_MARGIN;
+        }
+
+        public Builder setColor(@ColorInt int color) {
+            this.color = color;
+            return this;
+        }
+
+        public Builder setSelectedColor(@ColorInt int selectedColor) {
+            this.selectedColor = selectedColor;
+            return this;
+        }
+
+        /**
+         * @param radius radius of a dot in pixels
+         */
+        public Builder setRadius(float radius) {
+            this.radius = radius;
+            return this;
+        }
+
+        /**
+         * @param selectedRadius radius of the dot of the current page in pixels
+         */
+        public Builder setSelectedRadius(float selectedRadius) {
+            this.selectedRadius = selectedRadius;
+            return this;
+        }
+
+        /**
+         * @param spacing distance between the centers of two dots in pixels
+         */
+        public Builder setSpacing(float spacing) {
+            this.spacing = spacing;
+            return this;
+        }
+
+        /**
+         * @param margin distance between the centers of dots and the bottom, or the end for vertical layouts
+         */
+        public Builder setMargin(float margin) {
+            this.margin = margin;
+            return this;
+        }
+
+        public PageIndicatorDecoration build() {
+            return new PageIndicatorDecoration(this);
+        }
+    }
+}
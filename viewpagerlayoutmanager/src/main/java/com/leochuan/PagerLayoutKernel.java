@@ -0,0 +1,234 @@
+package com.leochuan;
+
+/**
+ * The position and offset math of {@link ViewPagerLayoutManager}.
+ * <p>
+ * It depends on nothing but plain java, so it can be tested and benchmarked off device.
+ * All the positions here are layout positions unless they are named adapter positions.
+ * When infinite scroll is enabled, layout positions can be any integer and are mapped to
+ * adapter positions by {@link #toAdapterPosition(int, int)}.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PagerLayoutKernel {
+
+    /**
+     * Max visible item count which means the window is determined by left and right items
+     */
+    public static final int DETERMINE_BY_MAX_AND_MIN = -1;
+
+    /**
+     * Index of the first layout position in the window, inclusive
+     */
+    public static final int WINDOW_START = 0;
+    /**
+     * Index of the last layout position in the window, exclusive
+     */
+    public static final int WINDOW_END = 1;
+
+    private PagerLayoutKernel() {
+    }
+
+    /**
+     * @return the layout position closest to the offset, without any adapter mapping
+     */
+    public static int getCurrentPositionOffset(float offset, float interval) {
+        if (interval == 0) {
+            return 0;
+        }
+        return Math.round(offset / interval);
+    }
+
+    /**
+     * @return the adapter position closest to the offset
+     */
+    public static int getCurrentPosition(float offset, float interval, int itemCount,
+                                         boolean infinite, boolean reverse) {
+        if (itemCount == 0) {
+            return 0;
+        }
+
+        int position = getCurrentPositionOffset(offset, interval);
+        if (!infinite) {
+            return Math.abs(position);
+        }
+
+        position = !reverse ?
+                //take care of position = itemCount
+                (position >= 0 ?
+                        position % itemCount :
+                        itemCount + position % itemCount) :
+                (position > 0 ?
+                        itemCount - position % itemCount :
+                        -position % itemCount);
+        return position == itemCount ? 0 : position;
+    }
+
+    /**
+     * Map a layout position, which can be out of [0, itemCount) when infinite scroll is enabled,
+     * to the adapter position it shows
+     */
+    public static int toAdapterPosition(int layoutPosition, int itemCount) {
+        if (layoutPosition >= itemCount) {
+            return layoutPosition % itemCount;
+        } else if (layoutPosition < 0) {
+            int delta = (-layoutPosition) % itemCount;
+            if (delta == 0) {
+                delta = itemCount;
+            }
+            return itemCount - delta;
+        }
+        return layoutPosition;
+    }
+
+    /**
+     * @return the first layout position from windowStart on which shows the given adapter position
+     */
+    public static int findLayoutPosition(int adapterPosition, int windowStart, int itemCount) {
+        return windowStart + toAdapterPosition(adapterPosition - windowStart, itemCount);
+    }
+
+    /**
+     * @return the offset at which the given layout position is centered
+     */
+    public static float getOffsetOfPosition(int layoutPosition, float interval, boolean reverse) {
+        return reverse ? layoutPosition * -interval : layoutPosition * interval;
+    }
+
+    /**
+     * Sometimes we need to get the right offset of matching adapter position
+     * cause when infinite scroll is enabled, there will be no limitation of the offset
+     */
+    public static float getOffsetOfRightAdapterPosition(float offset, float interval, int itemCount,
+                                                        boolean infinite, boolean reverse) {
+        if (!infinite) {
+            return offset;
+        }
+        // the period can be far beyond the precision of float with a huge item count
+        final double period = (double) interval * itemCount;
+        if (reverse) {
+            return (float) (offset <= 0 ? offset % period : offset % period - period);
+        } else {
+            return (float) (offset >= 0 ? offset % period : offset % period + period);
+        }
+    }
+
+    /**
+     * @return the offset of the last item, computed in double so that a huge item count
+     * only loses precision once when it is turned into float
+     */
+    public static float getMaxOffset(float interval, int itemCount, boolean reverse) {
+        return !reverse ? (float) ((itemCount - 1) * (double) interval) : 0;
+    }
+
+    /**
+     * @see #getMaxOffset(float, int, boolean)
+     */
+    public static float getMinOffset(float interval, int itemCount, boolean reverse) {
+        return !reverse ? 0 : (float) (-(itemCount - 1) * (double) interval);
+    }
+
+    /**
+     * Turn a scroll metric into int for {@link #computeScrollRange(float, int)} and its friends.
+     * If the whole range doesn't fit in int, all the metrics are scaled down proportionally,
+     * so the ratios used by scrollbars and accessibility stay right.
+     *
+     * @param value the metric to turn
+     * @param range the whole scroll range in pixels
+     */
+    public static int toScrollMetric(double value, double range) {
+        if (range <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return (int) (value / range * Integer.MAX_VALUE);
+    }
+
+    public static int computeScrollRange(float interval, int itemCount) {
+        final double range = (double) itemCount * interval;
+        return toScrollMetric(range, range);
+    }
+
+    public static int computeScrollExtent(float interval, int itemCount) {
+        return toScrollMetric(interval, (double) itemCount * interval);
+    }
+
+    /**
+     * @param realOffset the result of {@link #getOffsetOfRightAdapterPosition(float, float, int, boolean, boolean)}
+     */
+    public static int computeScrollOffset(float realOffset, float interval, int itemCount, boolean reverse) {
+        final double offset = !reverse ? realOffset : (itemCount - 1) * (double) interval + realOffset;
+        return toScrollMetric(offset, (double) itemCount * interval);
+    }
+
+    /**
+     * @return the scroll distance in pixels between the offset and the center of the closest item
+     */
+    public static int getOffsetToCenter(float offset, float interval, int itemCount,
+                                        boolean infinite, boolean reverse, float distanceRatio) {
+        if (infinite) {
+            return (int) ((getCurrentPositionOffset(offset, interval) * interval - offset) * distanceRatio);
+        }
+        return (int) ((getCurrentPosition(offset, interval, itemCount, false, reverse) *
+                (!reverse ? interval : -interval) - offset) * distanceRatio);
+    }
+
+    /**
+     * @return the scroll distance in pixels between the offset and the given position
+     */
+    public static int getOffsetToPosition(int position, float offset, float interval,
+                                          boolean infinite, boolean reverse, float distanceRatio) {
+        if (infinite) {
+            final int currentPositionOffset = getCurrentPositionOffset(offset, interval);
+            return (int) (((currentPositionOffset +
+                    (!reverse ? position - currentPositionOffset : -currentPositionOffset - position)) *
+                    interval - offset) * distanceRatio);
+        }
+        return (int) ((position *
+                (!reverse ? interval : -interval) - offset) * distanceRatio);
+    }
+
+    /**
+     * Calculate the range of layout positions which should be laid out around current position.
+     *
+     * @param currentPosition     current layout position, counted from 0 to 1 even if the layout is reversed
+     * @param leftItems           count of items laid out before current position
+     * @param rightItems          count of items laid out after current position
+     * @param maxVisibleItemCount max visible item count, or {@link #DETERMINE_BY_MAX_AND_MIN} if it is
+     *                            determined by leftItems and rightItems
+     * @param out                 receives the window at {@link #WINDOW_START} and {@link #WINDOW_END}
+     */
+    public static void calculateWindow(int currentPosition, int leftItems, int rightItems,
+                                       int maxVisibleItemCount, boolean infinite, int itemCount,
+                                       int[] out) {
+        final boolean useMaxVisibleCount = maxVisibleItemCount != DETERMINE_BY_MAX_AND_MIN;
+        int start = currentPosition - leftItems;
+        int end = currentPosition + rightItems;
+
+        // handle max visible count
+        if (useMaxVisibleCount) {
+            boolean isEven = maxVisibleItemCount % 2 == 0;
+            if (isEven) {
+                int offset = maxVisibleItemCount / 2;
+                start = currentPosition - offset + 1;
+                end = currentPosition + offset + 1;
+            } else {
+                int offset = (maxVisibleItemCount - 1) / 2;
+                start = currentPosition - offset;
+                end = currentPosition + offset + 1;
+            }
+        }
+
+        if (!infinite) {
+            if (start < 0) {
+                start = 0;
+                if (useMaxVisibleCount) {
+                    end = maxVisibleItemCount;
+                }
+            }
+            if (end > itemCount) {
+                end = itemCount;
+            }
+        }
+        out[WINDOW_START] = start;
+        out[WINDOW_END] = end;
+    }
+}
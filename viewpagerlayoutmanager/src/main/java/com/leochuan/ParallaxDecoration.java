@@ -0,0 +1,89 @@
+package com.leochuan;
+
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * An {@link RecyclerView.ItemDecoration} which draws a background behind the items of a
+ * {@link ViewPagerLayoutManager}, moving slower than the pages.
+ * <p>
+ * The background is tiled along the scroll axis and moved by {@link #getParallaxRatio()} of the
+ * recycler view size per page, read from the offset of the layout manager while drawing.
+ * So it is drawn in the same pass as the items, without any listener or extra invalidation.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class ParallaxDecoration extends RecyclerView.ItemDecoration {
+    public final static float DEFAULT_PARALLAX_RATIO = 0.5f;
+
+    protected Drawable background;
+    protected float parallaxRatio;
+
+    public ParallaxDecoration(@NonNull Drawable background) {
+        this(background, DEFAULT_PARALLAX_RATIO);
+    }
+
+    /**
+     * @param parallaxRatio how far the background moves when a page moves across the recycler view,
+     *                      0 means it stays still and 1 means it moves along with the pages
+     */
+    public ParallaxDecoration(@NonNull Drawable background, float parallaxRatio) {
+        this.background = background;
+        this.parallaxRatio = parallaxRatio;
+    }
+
+    @Override
+    public void onDraw(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (!(layoutManager instanceof ViewPagerLayoutManager)) {
+            return;
+        }
+        final ViewPagerLayoutManager viewPagerLayoutManager = (ViewPagerLayoutManager) layoutManager;
+        final boolean vertical = viewPagerLayoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL;
+        final int main = vertical ? parent.getHeight() : parent.getWidth();
+        final int other = vertical ? parent.getWidth() : parent.getHeight();
+        int tile = vertical ? background.getIntrinsicHeight() : background.getIntrinsicWidth();
+        if (tile <= 0) {
+            tile = main;
+        }
+        if (tile <= 0) {
+            return;
+        }
+
+        // not wrapped by the item count like getPagePosition(), so an infinite list never jumps
+        final float pages = viewPagerLayoutManager.mInterval == 0 ? 0 :
+                (viewPagerLayoutManager.shouldReverseLayout() ? -viewPagerLayoutManager.mOffset :
+                        viewPagerLayoutManager.mOffset) / viewPagerLayoutManager.mInterval;
+        final float shift = pages * main * parallaxRatio;
+        int start = -(int) (shift % tile);
+        if (start > 0) {
+            start -= tile;
+        }
+        for (int position = start; position < main; position += tile) {
+            if (vertical) {
+                background.setBounds(0, position, other, position + tile);
+            } else {
+                background.setBounds(position, 0, position + tile, other);
+            }
+            background.draw(c);
+        }
+    }
+
+    public Drawable getBackground() {
+        return background;
+    }
+
+    public void setBackground(@NonNull Drawable background) {
+        this.background = background;
+    }
+
+    public float getParallaxRatio() {
+        return parallaxRatio;
+    }
+
+    public void setParallaxRatio(float parallaxRatio) {
+        this.parallaxRatio = parallaxRatio;
+    }
+}
@@ -0,0 +1,326 @@
+package com.leochuan;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Predicts which adapter positions of a {@link ViewPagerLayoutManager} are going to be seen,
+ * so that an image loader can decode them ahead of time.
+ * <p>
+ * Set it with {@link ViewPagerLayoutManager#setPrefetchAdvisor(PrefetchAdvisor)}. A prediction comes from
+ * the fling target of {@link CenterSnapHelper}, the next tick of {@link AutoPlaySnapHelper}, or the
+ * scroll velocity while dragging. Each prediction is reported as ranges of adapter positions through
+ * {@link Callback#onPrefetch(int, int, int, long)}, split where an infinite list wraps around.
+ * Only positions which were not predicted before are reported, and positions of the previous prediction
+ * which are not in the new one are reported through {@link Callback#onCancel(int, int)}.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class PrefetchAdvisor {
+    /**
+     * Rank of the range around the predicted target
+     */
+    public static final int RANK_TARGET = 0;
+    /**
+     * Rank of the range passed by on the way to the target
+     */
+    public static final int RANK_PATH = 1;
+
+    /**
+     * How far ahead a drag is assumed to go, at its current velocity
+     */
+    private static final int DRAG_LOOK_AHEAD = 300;
+    private static final int MAX_RANGES = 4;
+
+    protected final Callback callback;
+    protected int radius = 1;
+    protected int maxPathPages = 2;
+
+    protected RecyclerView mRecyclerView;
+    protected ViewPagerLayoutManager layoutManager;
+
+    private int predictedTarget = RecyclerView.NO_POSITION;
+    /**
+     * Set when a snap helper predicts a target, velocity is ignored until scrolling stops
+     */
+    private boolean targetFromHelper;
+    private float velocity;
+    private long lastScrollTime;
+
+    private int[] rangeStarts = new int[MAX_RANGES];
+    private int[] rangeCounts = new int[MAX_RANGES];
+    private int rangeSize;
+    private int[] newRangeStarts = new int[MAX_RANGES];
+    private int[] newRangeCounts = new int[MAX_RANGES];
+    private int[] newRangeRanks = new int[MAX_RANGES];
+    private long[] newRangeEtas = new long[MAX_RANGES];
+    private int newRangeSize;
+
+    protected final RecyclerView.OnScrollListener mScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                onScrollIdle();
+            }
+        }
+
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            final int delta = layoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL ? dy : dx;
+            final long now = SystemClock.uptimeMillis();
+            final long duration = now - lastScrollTime;
+            lastScrollTime = now;
+            if (delta == 0 || duration <= 0 || duration > DRAG_LOOK_AHEAD) {
+                return;
+            }
+            // smoothed pixels per millisecond
+            velocity = velocity * 0.5f + (float) delta / duration * 0.5f;
+            if (!targetFromHelper && recyclerView.getScrollState() == RecyclerView.SCROLL_STATE_DRAGGING) {
+                predictFromVelocity();
+            }
+        }
+    };
+
+    public PrefetchAdvisor(@NonNull Callback callback) {
+        this.callback = callback;
+    }
+
+    void attach(@NonNull RecyclerView recyclerView, @NonNull ViewPagerLayoutManager layoutManager) {
+        mRecyclerView = recyclerView;
+        this.layoutManager = layoutManager;
+        mRecyclerView.addOnScrollListener(mScrollListener);
+    }
+
+    void detach() {
+        if (mRecyclerView != null) {
+            mRecyclerView.removeOnScrollListener(mScrollListener);
+        }
+        mRecyclerView = null;
+        layoutManager = null;
+        predictedTarget = RecyclerView.NO_POSITION;
+        targetFromHelper = false;
+        rangeSize = 0;
+    }
+
+    /**
+     * Scrolling has stopped, also called by {@link AutoPlaySnapHelper} after its offset animation
+     * since the recycler view stays idle during it
+     */
+    void onScrollIdle() {
+        // whatever was predicted is on the screen or will never be
+        predictedTarget = RecyclerView.NO_POSITION;
+        targetFromHelper = false;
+        velocity = 0;
+        rangeSize = 0;
+    }
+
+    /**
+     * Called by snap helpers when they know where scrolling is going to stop
+     *
+     * @param targetPosition the layout position scrolled to, as given to
+     *                       {@link ScrollHelper#smoothScrollToPosition(RecyclerView, ViewPagerLayoutManager, int)}
+     * @param etaMillis      time before the target starts to be seen, or a negative value to estimate it
+     */
+    void onTargetPredicted(int targetPosition, long etaMillis) {
+        if (layoutManager == null) {
+            return;
+        }
+        targetFromHelper = true;
+        predict(targetPosition, etaMillis);
+    }
+
+    private void predictFromVelocity() {
+        final float pageSize = layoutManager.mInterval * layoutManager.getDistanceRatio();
+        if (pageSize <= 0 || velocity == 0) {
+            return;
+        }
+        final int pages = Math.max(1, (int) Math.ceil(Math.abs(velocity) * DRAG_LOOK_AHEAD / pageSize));
+        final boolean forward = (velocity > 0) != layoutManager.shouldReverseLayout();
+        final int current = getCurrentLayoutPosition();
+        predict(forward ? current + pages : current - pages, -1);
+    }
+
+    private void predict(int target, long etaMillis) {
+        if (target == predictedTarget) {
+            return;
+        }
+        predictedTarget = target;
+        final int current = getCurrentLayoutPosition();
+        if (etaMillis < 0) {
+            etaMillis = estimateEta(target);
+        }
+
+        newRangeSize = 0;
+        addRange(target - radius, target + radius, RANK_TARGET, etaMillis);
+        final int distance = Math.abs(target - current);
+        if (distance > radius + 1) {
+            // the pages right before the target, the ones far before it are only seen for a moment
+            final int pathPages = Math.min(maxPathPages, distance - radius - 1);
+            final long pathEta = etaMillis * (distance - radius - pathPages) / distance;
+            if (target > current) {
+                addRange(target - radius - pathPages, target - radius - 1, RANK_PATH, pathEta);
+            } else {
+                addRange(target + radius + 1, target + radius + pathPages, RANK_PATH, pathEta);
+            }
+        }
+
+        // diff position by position, ranges moving by one page only cancel and request one page
+        for (int i = 0; i < rangeSize; i++) {
+            reportUncovered(rangeStarts[i], rangeCounts[i], newRangeStarts, newRangeCounts, newRangeSize,
+                    RANK_TARGET, 0, true);
+        }
+        for (int i = 0; i < newRangeSize; i++) {
+            reportUncovered(newRangeStarts[i], newRangeCounts[i], rangeStarts, rangeCounts, rangeSize,
+                    newRangeRanks[i], newRangeEtas[i], false);
+        }
+
+        // keep the new ranges as the current ones, the arrays are swapped to avoid allocation
+        int[] temp = rangeStarts;
+        rangeStarts = newRangeStarts;
+        newRangeStarts = temp;
+        temp = rangeCounts;
+        rangeCounts = newRangeCounts;
+        newRangeCounts = temp;
+        rangeSize = newRangeSize;
+    }
+
+    /**
+     * Add the pages between the layout positions as adapter positions,
+     * split into two ranges if they wrap around in infinite mode
+     */
+    private void addRange(int from, int to, int rank, long etaMillis) {
+        final int pageCount = layoutManager.getPageCount();
+        if (pageCount == 0 || from > to) {
+            return;
+        }
+        if (!layoutManager.getInfinite()) {
+            from = Math.max(from, 0);
+            to = Math.min(to, pageCount - 1);
+            if (from <= to) {
+                addPages(from, to, rank, etaMillis);
+            }
+            return;
+        }
+        if (to - from + 1 >= pageCount) {
+            addPages(0, pageCount - 1, rank, etaMillis);
+            return;
+        }
+        final int start = PagerLayoutKernel.toAdapterPosition(from, pageCount);
+        final int end = PagerLayoutKernel.toAdapterPosition(to, pageCount);
+        if (start <= end) {
+            addPages(start, end, rank, etaMillis);
+        } else {
+            addPages(start, pageCount - 1, rank, etaMillis);
+            addPages(0, end, rank, etaMillis);
+        }
+    }
+
+    private void addPages(int firstPage, int lastPage, int rank, long etaMillis) {
+        if (newRangeSize == MAX_RANGES) {
+            return;
+        }
+        final int start = layoutManager.getFirstItemOfPage(firstPage);
+        final int end = lastPage + 1 == layoutManager.getPageCount() ?
+                layoutManager.getItemCount() : layoutManager.getFirstItemOfPage(lastPage + 1);
+        if (end <= start) {
+            return;
+        }
+        newRangeStarts[newRangeSize] = start;
+        newRangeCounts[newRangeSize] = end - start;
+        newRangeRanks[newRangeSize] = rank;
+        newRangeEtas[newRangeSize] = etaMillis;
+        newRangeSize++;
+    }
+
+    /**
+     * Report the positions of the range which are in none of the other ranges, a run of them at a time
+     *
+     * @param cancel true to report them through {@link Callback#onCancel(int, int)},
+     *               false through {@link Callback#onPrefetch(int, int, int, long)}
+     */
+    private void reportUncovered(int start, int count, int[] otherStarts, int[] otherCounts, int otherSize,
+                                 int rank, long etaMillis, boolean cancel) {
+        final int end = start + count;
+        int position = start;
+        while (position < end) {
+            int runEnd = end;
+            boolean covered = false;
+            for (int i = 0; i < otherSize; i++) {
+                final int otherEnd = otherStarts[i] + otherCounts[i];
+                if (otherStarts[i] <= position && position < otherEnd) {
+                    // skip what the other range covers
+                    position = otherEnd;
+                    covered = true;
+                    break;
+                }
+                if (otherStarts[i] > position) {
+                    runEnd = Math.min(runEnd, otherStarts[i]);
+                }
+            }
+            if (covered) {
+                continue;
+            }
+            if (cancel) {
+                callback.onCancel(position, runEnd - position);
+            } else {
+                callback.onPrefetch(position, runEnd - position, rank, etaMillis);
+            }
+            position = runEnd;
+        }
+    }
+
+    /**
+     * @return the time to scroll to one page before the target at the current velocity
+     */
+    private long estimateEta(int target) {
+        if (velocity == 0) {
+            return 0;
+        }
+        final float pageSize = layoutManager.mInterval * layoutManager.getDistanceRatio();
+        final int distance = Math.max(0, Math.abs(layoutManager.getOffsetToPosition(target)) - (int) pageSize);
+        return (long) (distance / Math.abs(velocity));
+    }
+
+    private int getCurrentLayoutPosition() {
+        final int position = layoutManager.getCurrentPositionOffset();
+        return layoutManager.shouldReverseLayout() ? -position : position;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @param radius count of pages on each side of the target which are prefetched with it
+     */
+    public void setRadius(int radius) {
+        this.radius = radius;
+    }
+
+    public int getMaxPathPages() {
+        return maxPathPages;
+    }
+
+    /**
+     * @param maxPathPages max count of pages before the target which are prefetched
+     */
+    public void setMaxPathPages(int maxPathPages) {
+        this.maxPathPages = maxPathPages;
+    }
+
+    public interface Callback {
+        /**
+         * @param start     first adapter position of the range
+         * @param count     count of positions in the range
+         * @param rank      {@link #RANK_TARGET} or {@link #RANK_PATH}, lower is more important
+         * @param etaMillis estimated time before the range starts to be seen
+         */
+        void onPrefetch(int start, int count, int rank, long etaMillis);
+
+        /**
+         * A range reported before is not expected to be seen anymore
+         */
+        void onCancel(int start, int count);
+    }
+}
@@ -111,8 +111,7 @@ public class RotateLayoutManager extends ViewPagerLayoutManager {
     }
 
     private float calRotation(float targetOffset) {
-        final float realAngle = reverseRotate ? angle : -angle;
-        return realAngle / mInterval * targetOffset;
+        return ItemTransformKernel.linearRotation(targetOffset, mInterval, reverseRotate ? angle : -angle);
     }
 
     public static class Builder {
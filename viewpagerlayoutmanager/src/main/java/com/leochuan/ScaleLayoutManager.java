@@ -157,17 +157,14 @@ public class ScaleLayoutManager extends ViewPagerLayoutManager {
         float scale = calculateScale(targetOffset + mSpaceMain);
         itemView.setScaleX(scale);
         itemView.setScaleY(scale);
-        final float alpha = calAlpha(targetOffset);
-        itemView.setAlpha(alpha);
+        if (!isQualityDegraded()) {
+            final float alpha = calAlpha(targetOffset);
+            itemView.setAlpha(alpha);
+        }
     }
 
     private float calAlpha(float targetOffset) {
-        final float offset = Math.abs(targetOffset);
-        float alpha = (minAlpha - maxAlpha) / mInterval * offset + maxAlpha;
-        if (offset >= mInterval) {
-            alpha = minAlpha;
-        }
-        return alpha;
+        return ItemTransformKernel.fadeAlpha(targetOffset, mInterval, minAlpha, maxAlpha);
     }
 
     @Override
@@ -212,11 +209,7 @@ public class ScaleLayoutManager extends ViewPagerLayoutManager {
     }
 
     private float calculateScale(float x, float minScale, float maxScale) {
-        float deltaX = Math.abs(x - mSpaceMain);
-        if (deltaX - mDecoratedMeasurement > 0) {
-            deltaX = mDecoratedMeasurement;
-        }
-        return maxScale - deltaX / mDecoratedMeasurement * (maxScale - minScale);
+        return ItemTransformKernel.linearScale(x - mSpaceMain, mDecoratedMeasurement, minScale, maxScale);
     }
 
     public static class Builder {
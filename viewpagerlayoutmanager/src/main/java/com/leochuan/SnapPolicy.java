@@ -0,0 +1,173 @@
+package com.leochuan;
+
+import android.widget.Scroller;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Decides how many pages a fling moves for {@link CenterSnapHelper} and its subclasses.
+ * <p>
+ * The fling distance is measured the same way as a drag: pixels are divided by
+ * {@link ViewPagerLayoutManager#getDistanceRatio()} to get the offset, and the offset is divided by
+ * the interval of each item to get pages. The result is truncated and then clamped into
+ * [{@link #getMinPages()}, {@link #getMaxPages()}].
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class SnapPolicy {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private int minPages;
+    private int maxPages;
+    private int horizontalMinVelocity;
+    private int verticalMinVelocity;
+    private float horizontalDistanceScale;
+    private float verticalDistanceScale;
+
+    private SnapPolicy(Builder builder) {
+        if (builder.minPages < 0 || builder.maxPages < 1 || builder.maxPages < builder.minPages) {
+            throw new IllegalArgumentException("pages should satisfy 0 <= min pages <= max pages and max pages >= 1");
+        }
+        if (builder.horizontalMinVelocity < 0 || builder.verticalMinVelocity < 0) {
+            throw new IllegalArgumentException("min velocity should not less than 0");
+        }
+        if (builder.horizontalDistanceScale <= 0 || builder.verticalDistanceScale <= 0) {
+            throw new IllegalArgumentException("distance scale should greater than 0");
+        }
+        this.minPages = builder.minPages;
+        this.maxPages = builder.maxPages;
+        this.horizontalMinVelocity = builder.horizontalMinVelocity;
+        this.verticalMinVelocity = builder.verticalMinVelocity;
+        this.horizontalDistanceScale = builder.horizontalDistanceScale;
+        this.verticalDistanceScale = builder.verticalDistanceScale;
+    }
+
+    /**
+     * @return a policy which lets a fling go as far as its distance, which is the default of {@link CenterSnapHelper}
+     */
+    public static SnapPolicy free() {
+        return new Builder().build();
+    }
+
+    /**
+     * @return a policy which moves at most one page per fling, which is the default of {@link PageSnapHelper}
+     */
+    public static SnapPolicy onePage() {
+        return new Builder().setMaxPages(1).build();
+    }
+
+    public int getMinPages() {
+        return minPages;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public int getMinVelocity(int orientation) {
+        return orientation == ViewPagerLayoutManager.VERTICAL ? verticalMinVelocity : horizontalMinVelocity;
+    }
+
+    public float getDistanceScale(int orientation) {
+        return orientation == ViewPagerLayoutManager.VERTICAL ? verticalDistanceScale : horizontalDistanceScale;
+    }
+
+    /**
+     * @param layoutManager      the layout manager to fling
+     * @param scroller           used to predict the distance of the fling
+     * @param velocityX          fling velocity on x axis
+     * @param velocityY          fling velocity on y axis
+     * @param defaultMinVelocity min fling velocity of the {@link androidx.recyclerview.widget.RecyclerView}
+     * @return the count of pages to move, negative means moving backward
+     */
+    public int calculatePageDelta(@NonNull ViewPagerLayoutManager layoutManager, @NonNull Scroller scroller,
+                                  int velocityX, int velocityY, int defaultMinVelocity) {
+        final int orientation = layoutManager.getOrientation();
+        final int velocity = orientation == ViewPagerLayoutManager.VERTICAL ? velocityY : velocityX;
+        if (Math.abs(velocity) <= Math.max(defaultMinVelocity, getMinVelocity(orientation))) {
+            return 0;
+        }
+
+        final int direction = velocity > 0 ? 1 : -1;
+        final float interval = layoutManager.mInterval;
+        if (interval == 0) {
+            return direction * minPages;
+        }
+
+        scroller.fling(0, 0, velocityX, velocityY,
+                Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        final int distance = orientation == ViewPagerLayoutManager.VERTICAL ?
+                scroller.getFinalY() : scroller.getFinalX();
+        final float pages = Math.abs(distance) * getDistanceScale(orientation)
+                / layoutManager.getDistanceRatio() / Math.abs(interval);
+        int delta = pages >= maxPages ? maxPages : (int) pages;
+        if (delta < minPages) {
+            delta = minPages;
+        }
+        return direction * delta;
+    }
+
+    public static class Builder {
+        private static final float DEFAULT_DISTANCE_SCALE = 1f;
+
+        private int minPages;
+        private int maxPages;
+        private int horizontalMinVelocity;
+        private int verticalMinVelocity;
+        private float horizontalDistanceScale;
+        private float verticalDistanceScale;
+
+        public Builder() {
+            minPages = 0;
+            maxPages = UNLIMITED;
+            horizontalMinVelocity = 0;
+            verticalMinVelocity = 0;
+            horizontalDistanceScale = DEFAULT_DISTANCE_SCALE;
+            verticalDistanceScale = DEFAULT_DISTANCE_SCALE;
+        }
+
+        /**
+         * @param minPages min pages moved by a fling which is fast enough
+         */
+        public Builder setMinPages(int minPages) {
+            this.minPages = minPages;
+            return this;
+        }
+
+        /**
+         * @param maxPages max pages moved by a fling, at least 1, {@link #UNLIMITED} for no limitation
+         */
+        public Builder setMaxPages(int maxPages) {
+            this.maxPages = maxPages;
+            return this;
+        }
+
+        /**
+         * Flings slower than this or {@link androidx.recyclerview.widget.RecyclerView#getMinFlingVelocity()}
+         * just snap back to the current item
+         */
+        public Builder setMinVelocity(int orientation, int minVelocity) {
+            if (orientation == ViewPagerLayoutManager.VERTICAL) {
+                verticalMinVelocity = minVelocity;
+            } else {
+                horizontalMinVelocity = minVelocity;
+            }
+            return this;
+        }
+
+        /**
+         * @param distanceScale multiplied to the predicted fling distance before it is turned into pages
+         */
+        public Builder setDistanceScale(int orientation, float distanceScale) {
+            if (orientation == ViewPagerLayoutManager.VERTICAL) {
+                verticalDistanceScale = distanceScale;
+            } else {
+                horizontalDistanceScale = distanceScale;
+            }
+            return this;
+        }
+
+        public SnapPolicy build() {
+            return new SnapPolicy(this);
+        }
+    }
+}
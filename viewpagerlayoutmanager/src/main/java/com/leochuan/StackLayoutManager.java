@@ -0,0 +1,245 @@
+package com.leochuan;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * An implementation of {@link ViewPagerLayoutManager}
+ * which layouts items like a stack of cards.
+ * <p>
+ * The current item is on the top, the following items are stacked behind it,
+ * each one moved by stack offset and scaled down by stack scale.
+ * At most {@link #getStackCount()} cards are seen, and only one more is attached,
+ * staying exactly under the last seen card until it moves up. Deeper cards are not laid out at all.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class StackLayoutManager extends ViewPagerLayoutManager {
+
+    private int stackOffset;
+    private int stackCount;
+    private float stackScale;
+    private float moveSpeed;
+
+    public StackLayoutManager(Context context, int stackOffset) {
+        this(new Builder(context, stackOffset));
+    }
+
+    public StackLayoutManager(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        this(context, 0);
+    }
+
+    public StackLayoutManager(Context context, int stackOffset, int orientation) {
+        this(new Builder(context, stackOffset).setOrientation(orientation));
+    }
+
+    public StackLayoutManager(Context context, int stackOffset, int orientation, boolean reverseLayout) {
+        this(new Builder(context, stackOffset).setOrientation(orientation).setReverseLayout(reverseLayout));
+    }
+
+    public StackLayoutManager(Builder builder) {
+        this(builder.context, builder.stackOffset, builder.stackCount, builder.stackScale,
+                builder.orientation, builder.moveSpeed, builder.distanceToBottom, builder.reverseLayout);
+    }
+
+    private StackLayoutManager(Context context, int stackOffset, int stackCount, float stackScale,
+                               int orientation, float moveSpeed, int distanceToBottom,
+                               boolean reverseLayout) {
+        super(context, orientation, reverseLayout);
+        checkStackCount(stackCount);
+        checkStackScale(stackScale);
+        setEnableBringCenterToFront(true);
+        setDistanceToBottom(distanceToBottom);
+        this.stackOffset = stackOffset;
+        this.stackCount = stackCount;
+        this.stackScale = stackScale;
+        this.moveSpeed = moveSpeed;
+    }
+
+    public int getStackOffset() {
+        return stackOffset;
+    }
+
+    public int getStackCount() {
+        return stackCount;
+    }
+
+    public float getStackScale() {
+        return stackScale;
+    }
+
+    public float getMoveSpeed() {
+        return moveSpeed;
+    }
+
+    public void setStackOffset(int stackOffset) {
+        assertNotInLayoutOrScroll(null);
+        if (this.stackOffset == stackOffset) {
+            return;
+        }
+        this.stackOffset = stackOffset;
+        requestLayout();
+    }
+
+    public void setStackCount(int stackCount) {
+        assertNotInLayoutOrScroll(null);
+        checkStackCount(stackCount);
+        if (this.stackCount == stackCount) {
+            return;
+        }
+        this.stackCount = stackCount;
+        requestLayout();
+    }
+
+    public void setStackScale(float stackScale) {
+        assertNotInLayoutOrScroll(null);
+        checkStackScale(stackScale);
+        if (this.stackScale == stackScale) {
+            return;
+        }
+        this.stackScale = stackScale;
+        requestLayout();
+    }
+
+    public void setMoveSpeed(float moveSpeed) {
+        assertNotInLayoutOrScroll(null);
+        if (this.moveSpeed == moveSpeed) {
+            return;
+        }
+        this.moveSpeed = moveSpeed;
+    }
+
+    @Override
+    protected float getInterval() {
+        return mDecoratedMeasurement;
+    }
+
+    @Override
+    protected float maxRemoveOffset() {
+        return shouldReverseLayout() ? super.maxRemoveOffset() : mInterval * stackCount;
+    }
+
+    @Override
+    protected float minRemoveOffset() {
+        return shouldReverseLayout() ? -mInterval * stackCount : super.minRemoveOffset();
+    }
+
+    @Override
+    protected int calItemLeft(View itemView, float targetOffset) {
+        return mOrientation == VERTICAL ? 0 : calItemMain(targetOffset);
+    }
+
+    @Override
+    protected int calItemTop(View itemView, float targetOffset) {
+        return mOrientation == VERTICAL ? calItemMain(targetOffset) : 0;
+    }
+
+    @Override
+    protected void setItemViewProperty(View itemView, float targetOffset) {
+        final float scale = 1f - stackScale * calDepth(targetOffset);
+        itemView.setScaleX(scale);
+        itemView.setScaleY(scale);
+    }
+
+    @Override
+    protected float getDistanceRatio() {
+        if (moveSpeed == 0) {
+            return Float.MAX_VALUE;
+        }
+        return 1 / moveSpeed;
+    }
+
+    @Override
+    protected float getViewElevation(View itemView, float targetOffset) {
+        return shouldReverseLayout() ? targetOffset : -targetOffset;
+    }
+
+    private int calItemMain(float targetOffset) {
+        return ItemTransformKernel.stackMain(targetOffset, calDepth(targetOffset), stackOffset, shouldReverseLayout());
+    }
+
+    private float calDepth(float targetOffset) {
+        return ItemTransformKernel.stackDepth(targetOffset, mInterval, stackCount, shouldReverseLayout());
+    }
+
+    private static void checkStackCount(int stackCount) {
+        if (stackCount < 1) {
+            throw new IllegalArgumentException("stack count should be at least 1");
+        }
+    }
+
+    private static void checkStackScale(float stackScale) {
+        if (stackScale <= 0 || stackScale > 1) {
+            throw new IllegalArgumentException("stack scale should be greater than 0 and at most 1");
+        }
+    }
+
+    public static class Builder {
+        private static final float DEFAULT_SPEED = 1f;
+        private static final int DEFAULT_STACK_COUNT = 3;
+        private static final float DEFAULT_STACK_SCALE = 0.05f;
+
+        private Context context;
+        private int stackOffset;
+        private int stackCount;
+        private float stackScale;
+        private int orientation;
+        private float moveSpeed;
+        private boolean reverseLayout;
+        private int distanceToBottom;
+
+        public Builder(Context context, int stackOffset) {
+            this.stackOffset = stackOffset;
+            this.context = context;
+            stackCount = DEFAULT_STACK_COUNT;
+            stackScale = DEFAULT_STACK_SCALE;
+            orientation = HORIZONTAL;
+            moveSpeed = DEFAULT_SPEED;
+            reverseLayout = false;
+            distanceToBottom = ViewPagerLayoutManager.INVALID_SIZE;
+        }
+
+        /**
+         * @param stackCount max count of cards in the stack including the top one
+         */
+        public Builder setStackCount(int stackCount) {
+            checkStackCount(stackCount);
+            this.stackCount = stackCount;
+            return this;
+        }
+
+        /**
+         * @param stackScale how much each card is scaled down compared to the one above it
+         */
+        public Builder setStackScale(float stackScale) {
+            checkStackScale(stackScale);
+            this.stackScale = stackScale;
+            return this;
+        }
+
+        public Builder setOrientation(int orientation) {
+            this.orientation = orientation;
+            return this;
+        }
+
+        public Builder setReverseLayout(boolean reverseLayout) {
+            this.reverseLayout = reverseLayout;
+            return this;
+        }
+
+        public Builder setMoveSpeed(float moveSpeed) {
+            this.moveSpeed = moveSpeed;
+            return this;
+        }
+
+        public Builder setDistanceToBottom(int distanceToBottom) {
+            this.distanceToBottom = distanceToBottom;
+            return this;
+        }
+
+        public StackLayoutManager build() {
+            return new StackLayoutManager(this);
+        }
+    }
+}
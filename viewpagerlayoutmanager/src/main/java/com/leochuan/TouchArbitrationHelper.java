@@ -0,0 +1,151 @@
+package com.leochuan;
+
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Class intended to decide who owns a gesture when a {@link RecyclerView}
+ * using {@link ViewPagerLayoutManager} is nested in a list scrolling on the other axis,
+ * e.g. a horizontal carousel inside a vertical feed.
+ * <p>
+ * The decision is made once per gesture, as soon as the finger moves beyond touch slop.
+ * If the angle between the movement and the scroll axis of the attached {@link RecyclerView}
+ * is not greater than {@link #getMaxAngle()}, the gesture belongs to it and the parent is not
+ * allowed to intercept. Otherwise the gesture is swallowed before the attached
+ * {@link RecyclerView} starts dragging and handed over to the parent,
+ * so the attached one won't jitter and {@link CenterSnapHelper} only receives flings of
+ * gestures it owns.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class TouchArbitrationHelper implements RecyclerView.OnItemTouchListener {
+    public final static float DEFAULT_MAX_ANGLE = 30f;
+
+    private static final int STATE_UNDECIDED = 0;
+    private static final int STATE_OWNED = 1;
+    private static final int STATE_RELEASED = 2;
+
+    protected RecyclerView mRecyclerView;
+    protected int touchSlop;
+    protected float maxAngle;
+    private int state = STATE_UNDECIDED;
+    private float downX;
+    private float downY;
+
+    public TouchArbitrationHelper() {
+        this(DEFAULT_MAX_ANGLE);
+    }
+
+    /**
+     * @param maxAngle the max angle in degrees between a gesture and the scroll axis,
+     *                 which will still be handled by the attached {@link RecyclerView}
+     */
+    public TouchArbitrationHelper(float maxAngle) {
+        checkMaxAngle(maxAngle);
+        this.maxAngle = maxAngle;
+    }
+
+    /**
+     * Attaches the {@link TouchArbitrationHelper} to the provided RecyclerView.
+     * You can call this method with {@code null} to detach it from the current RecyclerView.
+     */
+    public void attachToRecyclerView(@Nullable RecyclerView recyclerView) {
+        if (mRecyclerView == recyclerView) {
+            return; // nothing to do
+        }
+        if (mRecyclerView != null) {
+            mRecyclerView.removeOnItemTouchListener(this);
+        }
+        mRecyclerView = recyclerView;
+        if (mRecyclerView != null) {
+            touchSlop = ViewConfiguration.get(mRecyclerView.getContext()).getScaledTouchSlop();
+            mRecyclerView.addOnItemTouchListener(this);
+        }
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        switch (e.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                state = STATE_UNDECIDED;
+                downX = e.getX();
+                downY = e.getY();
+                // hold the gesture until we know which direction it goes
+                requestParentDisallowIntercept(rv, true);
+                return false;
+            case MotionEvent.ACTION_MOVE:
+                if (state == STATE_UNDECIDED) {
+                    decide(rv, e);
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                state = STATE_UNDECIDED;
+                return false;
+            default:
+                break;
+        }
+        return state == STATE_RELEASED;
+    }
+
+    @Override
+    public void onTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        // a released gesture ends here, until the parent intercepts it
+        final int action = e.getActionMasked();
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            state = STATE_UNDECIDED;
+        }
+    }
+
+    @Override
+    public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+
+    }
+
+    private void decide(RecyclerView rv, MotionEvent e) {
+        final float dx = Math.abs(e.getX() - downX);
+        final float dy = Math.abs(e.getY() - downY);
+        if (dx * dx + dy * dy < touchSlop * touchSlop) {
+            return;
+        }
+        final RecyclerView.LayoutManager layoutManager = rv.getLayoutManager();
+        if (layoutManager == null) {
+            state = STATE_RELEASED;
+        } else {
+            final boolean horizontal = layoutManager.canScrollHorizontally();
+            final float along = horizontal ? dx : dy;
+            final float across = horizontal ? dy : dx;
+            final double angle = Math.toDegrees(Math.atan2(across, along));
+            state = angle <= maxAngle ? STATE_OWNED : STATE_RELEASED;
+        }
+        if (state == STATE_RELEASED) {
+            requestParentDisallowIntercept(rv, false);
+        }
+    }
+
+    private void requestParentDisallowIntercept(RecyclerView rv, boolean disallow) {
+        final ViewParent parent = rv.getParent();
+        if (parent != null) {
+            parent.requestDisallowInterceptTouchEvent(disallow);
+        }
+    }
+
+    public float getMaxAngle() {
+        return maxAngle;
+    }
+
+    public void setMaxAngle(float maxAngle) {
+        checkMaxAngle(maxAngle);
+        this.maxAngle = maxAngle;
+    }
+
+    protected void checkMaxAngle(float maxAngle) {
+        if (maxAngle < 0 || maxAngle > 90) {
+            throw new IllegalArgumentException("max angle should between 0 and 90");
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.leochuan;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * An implementation of {@link ViewPagerLayoutManager}
+ * which layouts sections as horizontal pages, and the items of each section as vertical pages.
+ * <p>
+ * The adapter must implement {@link SectionProvider}, items of a section are next to each other
+ * in the adapter. The horizontal axis uses the offset model of {@link ViewPagerLayoutManager},
+ * where a page is a section, and each section keeps its own row, so coming back to a section shows
+ * the item left there. All items come from the same {@link RecyclerView.Recycler}.
+ * <p>
+ * Use it with {@link TwoDimensionalSnapHelper}, which snaps both axes and locks each gesture to one axis.
+ */
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class TwoDimensionalPagerLayoutManager extends ViewPagerLayoutManager {
+    public static final int AXIS_NONE = -1;
+
+    /**
+     * First adapter position of each section, and the item count at the end
+     */
+    private int[] sectionStarts = new int[]{0};
+    /**
+     * Current row of each section, fractional while scrolling
+     */
+    private float[] rows = new float[0];
+    private float rowInterval;
+    private int lockedAxis = AXIS_NONE;
+    /**
+     * Position given to {@link #scrollToPosition(int)} before the sections could be read
+     */
+    private int pendingScrollPosition = RecyclerView.NO_POSITION;
+    /**
+     * Rows restored from a saved state, applied once the sections are read again
+     */
+    private float[] pendingRows;
+
+    public TwoDimensionalPagerLayoutManager(Context context) {
+        this(context, false);
+    }
+
+    public TwoDimensionalPagerLayoutManager(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        this(context);
+    }
+
+    public TwoDimensionalPagerLayoutManager(Context context, boolean reverseLayout) {
+        super(context, HORIZONTAL, reverseLayout);
+    }
+
+    /**
+     * @return true, items of a section scroll vertically
+     */
+    @Override
+    public boolean canScrollVertically() {
+        return true;
+    }
+
+    @Override
+    public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+        calSections();
+        if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+            scrollToPosition(pendingScrollPosition);
+        }
+        super.onLayoutChildren(recycler, state);
+    }
+
+    @Override
+    protected void setUpOnLayout() {
+        rowInterval = getHeight() - getPaddingTop() - getPaddingBottom();
+    }
+
+    @Override
+    protected float getInterval() {
+        return mOrientationHelper.getTotalSpace();
+    }
+
+    @Override
+    protected float maxRemoveOffset() {
+        return mInterval;
+    }
+
+    @Override
+    protected float minRemoveOffset() {
+        return -mInterval;
+    }
+
+    @Override
+    protected void setItemViewProperty(View itemView, float targetOffset) {
+
+    }
+
+    @Override
+    protected int getPageCount() {
+        return sectionStarts.length - 1;
+    }
+
+    @Override
+    protected int getPageOfItem(int position) {
+        // the last section starting at or before the position
+        int low = 0;
+        int high = getPageCount() - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (sectionStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    protected int getFirstItemOfPage(int page) {
+        return sectionStarts[page];
+    }
+
+    /**
+     * @return the adapter position of the item at the current row of the section
+     */
+    @Override
+    protected int getCurrentItemOfPage(int page) {
+        return sectionStarts[page] + getCurrentRow(page);
+    }
+
+    @Override
+    protected int getRecycledViewPoolSize() {
+        // a page and the ones next to it on both axes
+        return 5;
+    }
+
+    @Override
+    public void scrollToPosition(int position) {
+        if (!readSections()) {
+            // the adapter may not be ready before the first layout, which scrolls there once it is
+            pendingScrollPosition = position;
+            requestLayout();
+            return;
+        }
+        pendingScrollPosition = RecyclerView.NO_POSITION;
+        if (position >= 0 && position < getItemCount()) {
+            final int section = getPageOfItem(position);
+            rows[section] = position - sectionStarts[section];
+        }
+        super.scrollToPosition(position);
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        return new SectionSavedState(super.onSaveInstanceState(), pendingRows != null ? pendingRows : rows);
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (state instanceof SectionSavedState) {
+            final SectionSavedState savedState = (SectionSavedState) state;
+            pendingRows = savedState.rows;
+            super.onRestoreInstanceState(savedState.superState);
+        } else {
+            super.onRestoreInstanceState(state);
+        }
+    }
+
+    @Override
+    public int scrollHorizontallyBy(int dx, RecyclerView.Recycler recycler, RecyclerView.State state) {
+        if (lockedAxis == VERTICAL) {
+            return 0;
+        }
+        return super.scrollHorizontallyBy(dx, recycler, state);
+    }
+
+    @Override
+    public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler, RecyclerView.State state) {
+        if (lockedAxis == HORIZONTAL || getChildCount() == 0 || dy == 0 || rowInterval == 0) {
+            return 0;
+        }
+        final int section = getCurrentPosition();
+        final int rowCount = getRowCount(section);
+        final float row = rows[section];
+        final float targetRow = Math.max(0, Math.min(rowCount - 1, row + dy / rowInterval));
+        final int willScroll = (int) ((targetRow - row) * rowInterval);
+        rows[section] = row + willScroll / rowInterval;
+        layoutItems(recycler);
+        return willScroll;
+    }
+
+    // the vertical scroll bar shows the rows of the current section
+    @Override
+    public int computeVerticalScrollOffset(@NonNull RecyclerView.State state) {
+        if (getChildCount() == 0 || getPageCount() == 0) {
+            return 0;
+        }
+        final int section = getCurrentPosition();
+        if (!getSmoothScrollbarEnabled()) {
+            return getCurrentRow(section);
+        }
+        return PagerLayoutKernel.computeScrollOffset(rows[section] * rowInterval, rowInterval,
+                getRowCount(section), false);
+    }
+
+    @Override
+    public int computeVerticalScrollExtent(@NonNull RecyclerView.State state) {
+        if (getChildCount() == 0 || getPageCount() == 0) {
+            return 0;
+        }
+        if (!getSmoothScrollbarEnabled()) {
+            return 1;
+        }
+        return PagerLayoutKernel.computeScrollExtent(rowInterval, getRowCount(getCurrentPosition()));
+    }
+
+    @Override
+    public int computeVerticalScrollRange(@NonNull RecyclerView.State state) {
+        if (getChildCount() == 0 || getPageCount() == 0) {
+            return 0;
+        }
+        if (!getSmoothScrollbarEnabled()) {
+            return getRowCount(getCurrentPosition());
+        }
+        return PagerLayoutKernel.computeScrollRange(rowInterval, getRowCount(getCurrentPosition()));
+    }
+
+    @Override
+    protected void layoutItems(@NonNull RecyclerView.Recycler recycler) {
+        detachAndScrapAttachedViews(recycler);
+
+        final int pageCount = getPageCount();
+        if (getItemCount() == 0 || pageCount == 0 || mInterval == 0 || rowInterval == 0) {
+            removeAndRecycleAllViews(recycler);
+            return;
+        }
+
+        final int currentPage = shouldReverseLayout() ? -getCurrentPositionOffset() : getCurrentPositionOffset();
+        int start = currentPage - 1;
+        int end = currentPage + 2;
+        if (!getInfinite()) {
+            start = Math.max(start, 0);
+            end = Math.min(end, pageCount);
+        }
+
+        final int width = (int) mInterval;
+        final int height = (int) rowInterval;
+        for (int page = start; page < end; page++) {
+            final int left = getPaddingLeft() + (int) (getProperty(page) - mOffset);
+            final int section = PagerLayoutKernel.toAdapterPosition(page, pageCount);
+            final float row = rows[section];
+            final int rowStart = Math.max(0, Math.round(row) - 1);
+            final int rowEnd = Math.min(getRowCount(section), Math.round(row) + 2);
+            for (int r = rowStart; r < rowEnd; r++) {
+                final int top = getPaddingTop() + (int) ((r - row) * rowInterval);
+                if (left >= getWidth() - getPaddingRight() || left + width <= getPaddingLeft()
+                        || top >= getHeight() - getPaddingBottom() || top + height <= getPaddingTop()) {
+                    continue;
+                }
+                final View scrap = recycler.getViewForPosition(sectionStarts[section] + r);
+                addView(scrap);
+                measureChildExactly(scrap, width, height);
+                layoutDecoratedWithMargins(scrap, left, top, left + width, top + height);
+            }
+        }
+
+        List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        for (int i = scrapList.size() - 1; i >= 0; i--) {
+            removeAndRecycleView(scrapList.get(i).itemView, recycler);
+        }
+    }
+
+    @Override
+    boolean updateOffsetInPlace(float offset) {
+        mOffset = offset;
+        requestLayout();
+        return false;
+    }
+
+    @Override
+    public View findViewByPosition(int position) {
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null && getPosition(view) == position) {
+                return view;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the section of the view
+     */
+    @Override
+    public int getLayoutPositionOfView(View view) {
+        return getPageOfItem(getPosition(view));
+    }
+
+    public int getSectionCount() {
+        return getPageCount();
+    }
+
+    public int getRowCount(int section) {
+        return sectionStarts[section + 1] - sectionStarts[section];
+    }
+
+    /**
+     * @return the row closest to the center in the section
+     */
+    public int getCurrentRow(int section) {
+        return section < rows.length ? Math.round(rows[section]) : 0;
+    }
+
+    /**
+     * @return the row closest to the center in the current section
+     */
+    public int getCurrentRow() {
+        return getPageCount() == 0 ? 0 : getCurrentRow(getCurrentPosition());
+    }
+
+    /**
+     * @return the dy between center and the current row of the current section
+     */
+    public int getOffsetToRowCenter() {
+        if (getPageCount() == 0) {
+            return 0;
+        }
+        final int section = getCurrentPosition();
+        return PagerLayoutKernel.getOffsetToCenter(rows[section] * rowInterval, rowInterval,
+                getRowCount(section), false, false, 1f);
+    }
+
+    /**
+     * @return the dy between center and the given row of the current section
+     */
+    public int getOffsetToRow(int row) {
+        if (getPageCount() == 0) {
+            return 0;
+        }
+        final int section = getCurrentPosition();
+        return PagerLayoutKernel.getOffsetToPosition(row, rows[section] * rowInterval, rowInterval,
+                false, false, 1f);
+    }
+
+    public int getLockedAxis() {
+        return lockedAxis;
+    }
+
+    /**
+     * Only scroll along the given axis until it is unlocked by {@link #AXIS_NONE}
+     *
+     * @param axis {@link #HORIZONTAL}, {@link #VERTICAL} or {@link #AXIS_NONE}
+     */
+    public void setLockedAxis(int axis) {
+        if (axis != HORIZONTAL && axis != VERTICAL && axis != AXIS_NONE) {
+            throw new IllegalArgumentException("invalid axis:" + axis);
+        }
+        lockedAxis = axis;
+    }
+
+    /**
+     * Read the sections from the adapter, rows of sections which still exist are kept
+     *
+     * @throws IllegalStateException if the adapter doesn't tell its sections right
+     */
+    private void calSections() {
+        if (!readSections()) {
+            final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+            if (!(adapter instanceof SectionProvider)) {
+                throw new IllegalStateException("adapter should implement SectionProvider");
+            }
+            throw new IllegalStateException("items of all sections should add up to the item count");
+        }
+    }
+
+    /**
+     * Same as {@link #calSections()} but returns false rather than throwing,
+     * in which case the sections read before are kept
+     */
+    private boolean readSections() {
+        final int itemCount = getItemCount();
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (!(adapter instanceof SectionProvider)) {
+            if (itemCount > 0) {
+                return false;
+            }
+            sectionStarts = new int[]{0};
+            return true;
+        }
+        final SectionProvider provider = (SectionProvider) adapter;
+        final int sectionCount = provider.getSectionCount();
+        int sectionEnd = 0;
+        for (int i = 0; i < sectionCount; i++) {
+            sectionEnd += provider.getSectionItemCount(i);
+        }
+        if (sectionEnd != itemCount) {
+            return false;
+        }
+        if (sectionStarts.length != sectionCount + 1) {
+            sectionStarts = new int[sectionCount + 1];
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            sectionStarts[i + 1] = sectionStarts[i] + provider.getSectionItemCount(i);
+        }
+        if (pendingRows != null) {
+            rows = pendingRows;
+            pendingRows = null;
+        }
+        if (rows.length != sectionCount) {
+            final float[] newRows = new float[sectionCount];
+            System.arraycopy(rows, 0, newRows, 0, Math.min(rows.length, sectionCount));
+            rows = newRows;
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            rows[i] = Math.max(0, Math.min(rows[i], getRowCount(i) - 1));
+        }
+        return true;
+    }
+
+    /**
+     * The state of {@link ViewPagerLayoutManager} with the row of each section
+     */
+    protected static class SectionSavedState implements Parcelable {
+        public static final Parcelable.Creator<SectionSavedState> CREATOR
+                = new Parcelable.Creator<SectionSavedState>() {
+            @Override
+            public SectionSavedState createFromParcel(Parcel in) {
+                return new SectionSavedState(in);
+            }
+
+            @Override
+            public SectionSavedState[] newArray(int size) {
+                return new SectionSavedState[size];
+            }
+        };
+        final Parcelable superState;
+        final float[] rows;
+
+        SectionSavedState(Parcelable superState, float[] rows) {
+            this.superState = superState;
+            this.rows = rows.clone();
+        }
+
+        SectionSavedState(Parcel in) {
+            superState = in.readParcelable(SavedState.class.getClassLoader());
+            rows = in.createFloatArray();
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeParcelable(superState, flags);
+            dest.writeFloatArray(rows);
+        }
+    }
+
+    /**
+     * Implemented by the adapter to tell how items are grouped into sections
+     */
+    public interface SectionProvider {
+        int getSectionCount();
+
+        /**
+         * @return count of items in the section, should be at least 1
+         */
+        int getSectionItemCount(int section);
+    }
+}
@@ -0,0 +1,234 @@
+package com.leochuan;
+
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+import android.view.animation.DecelerateInterpolator;
+import android.widget.Scroller;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Class intended to support snapping for a {@link RecyclerView}
+ * which use {@link TwoDimensionalPagerLayoutManager} as its layout manager.
+ * <p>
+ * Each gesture is locked to the axis it first moves along beyond touch slop,
+ * so a page never moves diagonally. A fling moves one section horizontally or one row vertically,
+ * and the current item is snapped to the center when scrolling stops.
+ */
+public class TwoDimensionalSnapHelper extends RecyclerView.OnFlingListener
+        implements RecyclerView.OnItemTouchListener {
+
+    protected RecyclerView mRecyclerView;
+    protected Scroller mGravityScroller;
+    protected boolean mScrolled = false;
+    protected int touchSlop;
+
+    protected int scrollStartSection = RecyclerView.NO_POSITION;
+    protected int scrollStartRow = RecyclerView.NO_POSITION;
+
+    /**
+     * Decides how many sections a horizontal fling moves
+     */
+    protected SnapPolicy snapPolicy = SnapPolicy.onePage();
+
+    private float downX;
+    private float downY;
+
+    // Handles the snap on scroll case.
+    protected final RecyclerView.OnScrollListener mScrollListener =
+            new RecyclerView.OnScrollListener() {
+
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                    super.onScrollStateChanged(recyclerView, newState);
+
+                    final TwoDimensionalPagerLayoutManager layoutManager = getLayoutManager();
+                    if (layoutManager == null) {
+                        return;
+                    }
+
+                    if (newState == RecyclerView.SCROLL_STATE_DRAGGING) {
+                        scrollStartSection = layoutManager.getCurrentPositionOffset();
+                        scrollStartRow = layoutManager.getCurrentRow();
+                    }
+
+                    final ViewPagerLayoutManager.OnPageChangeListener onPageChangeListener =
+                            layoutManager.onPageChangeListener;
+                    if (onPageChangeListener != null) {
+                        onPageChangeListener.onPageScrollStateChanged(newState);
+                    }
+
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE && mScrolled) {
+                        mScrolled = false;
+                        snapToCenterView(layoutManager, onPageChangeListener);
+                    }
+                }
+
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (dx != 0 || dy != 0) {
+                        mScrolled = true;
+                    }
+                }
+            };
+
+    @Override
+    public boolean onFling(int velocityX, int velocityY) {
+        final TwoDimensionalPagerLayoutManager layoutManager = getLayoutManager();
+        if (layoutManager == null || mRecyclerView.getAdapter() == null) {
+            return false;
+        }
+
+        int axis = layoutManager.getLockedAxis();
+        if (axis == TwoDimensionalPagerLayoutManager.AXIS_NONE) {
+            axis = Math.abs(velocityX) >= Math.abs(velocityY) ?
+                    ViewPagerLayoutManager.HORIZONTAL : ViewPagerLayoutManager.VERTICAL;
+        }
+
+        if (axis == ViewPagerLayoutManager.HORIZONTAL) {
+            final int currentSection = scrollStartSection == RecyclerView.NO_POSITION ?
+                    layoutManager.getCurrentPositionOffset() : scrollStartSection;
+            final int offsetSection = snapPolicy.calculatePageDelta(layoutManager, mGravityScroller,
+                    velocityX, 0, mRecyclerView.getMinFlingVelocity());
+            final int targetSection = layoutManager.getReverseLayout() ?
+                    -currentSection - offsetSection : currentSection + offsetSection;
+            if (layoutManager.prefetchAdvisor != null) {
+                layoutManager.prefetchAdvisor.onTargetPredicted(targetSection, -1);
+            }
+            ScrollHelper.smoothScrollToPosition(mRecyclerView, layoutManager, targetSection);
+        } else {
+            final int currentRow = scrollStartRow == RecyclerView.NO_POSITION ?
+                    layoutManager.getCurrentRow() : scrollStartRow;
+            int offsetRow = 0;
+            if (Math.abs(velocityY) > mRecyclerView.getMinFlingVelocity()) {
+                offsetRow = velocityY > 0 ? 1 : -1;
+            }
+            final int rowCount = layoutManager.getRowCount(layoutManager.getCurrentPosition());
+            final int targetRow = Math.max(0, Math.min(rowCount - 1, currentRow + offsetRow));
+            mRecyclerView.smoothScrollBy(0, layoutManager.getOffsetToRow(targetRow));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        final TwoDimensionalPagerLayoutManager layoutManager = getLayoutManager();
+        if (layoutManager == null) {
+            return false;
+        }
+        switch (e.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downX = e.getX();
+                downY = e.getY();
+                // a new gesture decides its own axis
+                layoutManager.setLockedAxis(TwoDimensionalPagerLayoutManager.AXIS_NONE);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (layoutManager.getLockedAxis() == TwoDimensionalPagerLayoutManager.AXIS_NONE) {
+                    final float dx = Math.abs(e.getX() - downX);
+                    final float dy = Math.abs(e.getY() - downY);
+                    if (dx > touchSlop || dy > touchSlop) {
+                        // decided before the recycler view starts dragging on this event
+                        layoutManager.setLockedAxis(dx >= dy ?
+                                ViewPagerLayoutManager.HORIZONTAL : ViewPagerLayoutManager.VERTICAL);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        return false;
+    }
+
+    @Override
+    public void onTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+
+    }
+
+    @Override
+    public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+
+    }
+
+    public SnapPolicy getSnapPolicy() {
+        return snapPolicy;
+    }
+
+    public void setSnapPolicy(@NonNull SnapPolicy snapPolicy) {
+        this.snapPolicy = snapPolicy;
+    }
+
+    /**
+     * Please attach after {@link TwoDimensionalPagerLayoutManager} is set.
+     * You can call this method with {@code null} to detach it from the current RecyclerView.
+     *
+     * @throws IllegalStateException if there is already a {@link RecyclerView.OnFlingListener}
+     *                               attached to the provided {@link RecyclerView}.
+     */
+    public void attachToRecyclerView(@Nullable RecyclerView recyclerView)
+            throws IllegalStateException {
+        if (mRecyclerView == recyclerView) {
+            return; // nothing to do
+        }
+        if (mRecyclerView != null) {
+            destroyCallbacks();
+        }
+        mRecyclerView = recyclerView;
+        if (mRecyclerView != null) {
+            final TwoDimensionalPagerLayoutManager layoutManager = getLayoutManager();
+            if (layoutManager == null) return;
+
+            setupCallbacks();
+            touchSlop = ViewConfiguration.get(mRecyclerView.getContext()).getScaledTouchSlop();
+            mGravityScroller = new Scroller(mRecyclerView.getContext(),
+                    new DecelerateInterpolator());
+
+            snapToCenterView(layoutManager, layoutManager.onPageChangeListener);
+        }
+    }
+
+    /**
+     * Snap both axes, the lock is released since no finger is on the screen
+     */
+    protected void snapToCenterView(TwoDimensionalPagerLayoutManager layoutManager,
+                                    ViewPagerLayoutManager.OnPageChangeListener listener) {
+        layoutManager.setLockedAxis(TwoDimensionalPagerLayoutManager.AXIS_NONE);
+        final int dx = layoutManager.getOffsetToCenter();
+        final int dy = layoutManager.getOffsetToRowCenter();
+        if (dx != 0 || dy != 0) {
+            mRecyclerView.smoothScrollBy(dx, dy);
+        } else if (listener != null) {
+            listener.onPageSelected(layoutManager.getCurrentPosition());
+        }
+    }
+
+    @Nullable
+    private TwoDimensionalPagerLayoutManager getLayoutManager() {
+        final RecyclerView.LayoutManager layoutManager = mRecyclerView == null ? null : mRecyclerView.getLayoutManager();
+        return layoutManager instanceof TwoDimensionalPagerLayoutManager ?
+                (TwoDimensionalPagerLayoutManager) layoutManager : null;
+    }
+
+    /**
+     * Called when an instance of a {@link RecyclerView} is attached.
+     */
+    protected void setupCallbacks() throws IllegalStateException {
+        if (mRecyclerView.getOnFlingListener() != null) {
+            throw new IllegalStateException("An instance of OnFlingListener already set.");
+        }
+        mRecyclerView.addOnScrollListener(mScrollListener);
+        mRecyclerView.addOnItemTouchListener(this);
+        mRecyclerView.setOnFlingListener(this);
+    }
+
+    /**
+     * Called when the instance of a {@link RecyclerView} is detached.
+     */
+    protected void destroyCallbacks() {
+        mRecyclerView.removeOnScrollListener(mScrollListener);
+        mRecyclerView.removeOnItemTouchListener(this);
+        mRecyclerView.setOnFlingListener(null);
+    }
+}
@@ -1,15 +1,23 @@
 package com.leochuan;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.Interpolator;
 
 import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -26,7 +34,7 @@ import static androidx.recyclerview.widget.RecyclerView.NO_POSITION;
 @SuppressWarnings({"WeakerAccess", "unused", "SameParameterValue"})
 public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
 
-    public static final int DETERMINE_BY_MAX_AND_MIN = -1;
+    public static final int DETERMINE_BY_MAX_AND_MIN = PagerLayoutKernel.DETERMINE_BY_MAX_AND_MIN;
 
     public static final int HORIZONTAL = OrientationHelper.HORIZONTAL;
 
@@ -35,6 +43,26 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
     private static final int DIRECTION_NO_WHERE = -1;
     private static final int DIRECTION_FORWARD = 0;
     private static final int DIRECTION_BACKWARD = 1;
+    /**
+     * Extra recycled views kept for each view type, views leaving and entering at the same time in a fling
+     */
+    private static final int POOL_FLING_MARGIN = 2;
+    /**
+     * How many windows of items on each side of its saved position the anchor item is searched in
+     */
+    private static final int ANCHOR_SEARCH_WINDOWS = 4;
+    /**
+     * Bytes per pixel used to estimate the memory held by a view, as if it is backed by an ARGB_8888 bitmap
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+    /**
+     * Scroll speed in pixels per second above which items are laid out in reduced quality
+     */
+    private static final float DEFAULT_DEGRADE_VELOCITY = 4000f;
+    /**
+     * Two frames at 60fps
+     */
+    private static final long DEFAULT_FRAME_DEADLINE = 32;
     /**
      * item包含装饰物, 包含margin测量后的宽度
      */
@@ -106,8 +134,27 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
     private boolean mRecycleChildrenOnDetach;
     private boolean mInfinite = false;
     private boolean mEnableBringCenterToFront;
+    private boolean mEnableOcclusionCulling;
+    /**
+     * Children hidden by {@link #cullOccludedChildren()}, they must be visible again before being recycled
+     */
+    private final List<View> mCulledViews = new ArrayList<>();
+    private final Rect mOccluderRect = new Rect();
+    private final Rect mOccludedRect = new Rect();
+    private final Rect mDecorInsets = new Rect();
     private int mLeftItems;
     private int mRightItems;
+    /**
+     * The layout window calculated by {@link #calLayoutWindow(int)}, [start, end)
+     */
+    private final int[] mLayoutWindow = new int[2];
+    private int mLayoutCurrent;
+    /**
+     * Bit k is set if the k-th laid out child was added on top of the previous one,
+     * so {@link #layoutItemsInPlace()} can tell when children need another z-order
+     */
+    private long mLayoutOrder;
+    private boolean mLayoutOrderValid;
     /**
      * max visible item count
      */
@@ -121,6 +168,51 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
      * use for handle focus
      */
     private View currentFocusView;
+    /**
+     * The {@link RecyclerView} this layout manager is attached to
+     */
+    RecyclerView mRecyclerView;
+    /**
+     * Decorated measurement of the first measured view of each view type
+     */
+    private SparseIntArray mMeasurementCache = new SparseIntArray();
+    private SparseIntArray mMeasurementInOtherCache = new SparseIntArray();
+    /**
+     * Size of the layout manager when {@link #mMeasurementCache} was filled
+     */
+    private int mMeasuredWidth;
+    private int mMeasuredHeight;
+    private boolean mEnableAutoSizePool;
+    /**
+     * Max recycled views we have set to the pool for each view type
+     */
+    private SparseIntArray mPoolSizes = new SparseIntArray();
+    private MessageQueue.IdleHandler mPoolFiller;
+    /**
+     * Warm up tasks started with a different generation are cancelled
+     */
+    private volatile int mWarmUpGeneration;
+    /**
+     * Told by snap helpers where scrolling is going to stop
+     */
+    PrefetchAdvisor prefetchAdvisor;
+    /**
+     * Set by {@link AutoPlaySnapHelper} while its offset animation scrolls,
+     * so {@link #scrollBy(int, RecyclerView.Recycler, RecyclerView.State)} updates children in place when it can
+     */
+    boolean mScrollInPlace;
+    private boolean mEnableAdaptiveQuality;
+    private float mDegradeVelocity = DEFAULT_DEGRADE_VELOCITY;
+    private long mFrameDeadline = DEFAULT_FRAME_DEADLINE;
+    private boolean mQualityDegraded;
+    /**
+     * Degraded by a missed frame, kept until scrolling stops so it won't switch every frame
+     */
+    private boolean mDegradedUntilIdle;
+    /**
+     * Uptime of the last scrolled frame, 0 while idle
+     */
+    private long mLastScrollTime;
 
     /**
      * Creates a horizontal ViewPagerLayoutManager
@@ -202,13 +294,28 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         mRecycleChildrenOnDetach = recycleChildrenOnDetach;
     }
 
+    @Override
+    public void onAttachedToWindow(RecyclerView view) {
+        super.onAttachedToWindow(view);
+        mRecyclerView = view;
+        if (prefetchAdvisor != null) {
+            prefetchAdvisor.attach(view, this);
+        }
+    }
+
     @Override
     public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
         super.onDetachedFromWindow(view, recycler);
+        restoreCulledChildren();
         if (mRecycleChildrenOnDetach) {
             removeAndRecycleAllViews(recycler);
             recycler.clear();
         }
+        cancelRecycledViewPoolFilling();
+        if (prefetchAdvisor != null) {
+            prefetchAdvisor.detach();
+        }
+        mRecyclerView = null;
     }
 
     @Override
@@ -220,9 +327,47 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         savedState.position = mPendingScrollPosition;
         savedState.offset = mOffset;
         savedState.isReverseLayout = mShouldReverseLayout;
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != null && adapter.hasStableIds() && getItemCount() > 0 && mInterval != 0) {
+            // keep the current item and how far it has been scrolled,
+            // so we can land on it again even if the data set has changed
+            final int anchorPosition = getCurrentItemOfPage(getCurrentPosition());
+            savedState.anchorItemId = adapter.getItemId(anchorPosition);
+            savedState.anchorPosition = anchorPosition;
+            savedState.anchorFraction = (mOffset - getCurrentPositionOffset() * mInterval) / mInterval;
+        }
         return savedState;
     }
 
+    /**
+     * Find the position of the saved anchor item in current adapter
+     *
+     * @return the new position of the anchor item, or {@link RecyclerView#NO_POSITION}
+     * if it isn't within {@link #ANCHOR_SEARCH_WINDOWS} windows of its saved position
+     */
+    private int findAnchorPosition(@NonNull SavedState savedState, int itemCount) {
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (savedState.anchorItemId == RecyclerView.NO_ID || adapter == null || !adapter.hasStableIds()) {
+            return NO_POSITION;
+        }
+        final int origin = Math.min(Math.max(savedState.anchorPosition, 0), itemCount - 1);
+        // items are likely to stay close to where they were, so search from there,
+        // but not through the whole adapter which can be huge, the saved offset is used instead
+        final int radius = ANCHOR_SEARCH_WINDOWS * getWindowSize();
+        for (int distance = 0; distance <= radius
+                && (origin - distance >= 0 || origin + distance < itemCount); distance++) {
+            if (origin + distance < itemCount
+                    && adapter.getItemId(origin + distance) == savedState.anchorItemId) {
+                return origin + distance;
+            }
+            if (distance > 0 && origin - distance >= 0
+                    && adapter.getItemId(origin - distance) == savedState.anchorItemId) {
+                return origin - distance;
+            }
+        }
+        return NO_POSITION;
+    }
+
     @Override
     public void onRestoreInstanceState(Parcelable state) {
         if (state instanceof SavedState) {
@@ -275,6 +420,7 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         }
         mOrientation = orientation;
         mOrientationHelper = null;
+        clearMeasurementCache();
         mDistanceToBottom = INVALID_SIZE;
         removeAllViews();
     }
@@ -318,6 +464,14 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         }
     }
 
+    /**
+     * @return true if items are laid out from end to start, which takes RTL into account
+     * besides {@link #getReverseLayout()}
+     */
+    protected boolean shouldReverseLayout() {
+        return mShouldReverseLayout;
+    }
+
     /**
      * Returns if views are laid out from the opposite direction of the layout.
      *
@@ -356,11 +510,12 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
     @Override
     public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state, int position) {
         final int offsetPosition;
+        position = getPageOfItem(position);
 
         // fix wrong scroll direction when infinite enable
         if (mInfinite) {
             final int currentPosition = getCurrentPosition();
-            final int total = getItemCount();
+            final int total = getPageCount();
             final int targetPosition;
             if (position < currentPosition) {
                 int d1 = currentPosition - position;
@@ -397,8 +552,13 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
     }
 
     protected void calChildSpaceAndSpace(View scrap) {
-        mDecoratedMeasurement = mOrientationHelper.getDecoratedMeasurement(scrap);
-        mDecoratedMeasurementInOther = mOrientationHelper.getDecoratedMeasurementInOther(scrap);
+        calChildSpaceAndSpace(mOrientationHelper.getDecoratedMeasurement(scrap),
+                mOrientationHelper.getDecoratedMeasurementInOther(scrap));
+    }
+
+    protected void calChildSpaceAndSpace(int decoratedMeasurement, int decoratedMeasurementInOther) {
+        mDecoratedMeasurement = decoratedMeasurement;
+        mDecoratedMeasurementInOther = decoratedMeasurementInOther;
         if (forceSpaceMain != INVALID_SIZE) {
             mSpaceMain = forceSpaceMain;
         } else {
@@ -411,21 +571,65 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         }
     }
 
-    private View getMeasureView(RecyclerView.Recycler recycler, RecyclerView.State state, int index) {
-        if (index >= state.getItemCount() || index < 0) {
-            return null;
+    /**
+     * Remember the size of the given measured view for its view type,
+     * if another view of the same type hasn't been remembered yet
+     */
+    private void cacheMeasurement(View view) {
+        final int viewType = getItemViewType(view);
+        if (mMeasurementCache.indexOfKey(viewType) < 0) {
+            mMeasurementCache.put(viewType, mOrientationHelper.getDecoratedMeasurement(view));
+            mMeasurementInOtherCache.put(viewType, mOrientationHelper.getDecoratedMeasurementInOther(view));
         }
-        try {
-            return recycler.getViewForPosition(index);
-        } catch (Exception e) {
-            return getMeasureView(recycler, state, index + 1);
+    }
+
+    private void clearMeasurementCache() {
+        mMeasurementCache.clear();
+        mMeasurementInOtherCache.clear();
+    }
+
+    /**
+     * Measure the child to exactly fill a slot of the given size, decorations and margins included,
+     * for layout managers which lay out items in cells rather than at their own size
+     */
+    void measureChildExactly(@NonNull View child, int width, int height) {
+        calculateItemDecorationsForChild(child, mDecorInsets);
+        final RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        final int childWidth = width - mDecorInsets.left - mDecorInsets.right - lp.leftMargin - lp.rightMargin;
+        final int childHeight = height - mDecorInsets.top - mDecorInsets.bottom - lp.topMargin - lp.bottomMargin;
+        child.measure(View.MeasureSpec.makeMeasureSpec(Math.max(0, childWidth), View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(Math.max(0, childHeight), View.MeasureSpec.EXACTLY));
+    }
+
+    /**
+     * Make sure the size of the first item is known, it is used as the size of the slot of every item.
+     * A view is only fetched and measured when no view of the same type has been measured before.
+     */
+    private void measureReferenceItem(RecyclerView.Recycler recycler) {
+        if (mMeasuredWidth != getWidth() || mMeasuredHeight != getHeight()) {
+            // children may depend on our size
+            clearMeasurementCache();
+            mMeasuredWidth = getWidth();
+            mMeasuredHeight = getHeight();
+        }
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        final int viewType = adapter == null ? RecyclerView.INVALID_TYPE : adapter.getItemViewType(0);
+        if (viewType == RecyclerView.INVALID_TYPE || mMeasurementCache.indexOfKey(viewType) < 0) {
+            final View scrap = recycler.getViewForPosition(0);
+            measureChildWithMargins(scrap, 0, 0);
+            cacheMeasurement(scrap);
+            calChildSpaceAndSpace(scrap);
+            // it is not attached, give it back rather than leave it to nowhere
+            recycler.recycleView(scrap);
+            return;
         }
+        calChildSpaceAndSpace(mMeasurementCache.get(viewType), mMeasurementInOtherCache.get(viewType));
     }
 
     @Override
     public boolean onAddFocusables(@NonNull RecyclerView recyclerView, @NonNull ArrayList<View> views, int direction, int focusableMode) {
         final int currentPosition = getCurrentPosition();
-        final View currentView = findViewByPosition(currentPosition);
+        final View currentView = findViewByPosition(getCurrentItemOfPage(currentPosition));
         if (currentView == null) {
             return true;
         }
@@ -484,22 +688,84 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
      * 参与计算偏移距离的值, 通常是布局的宽度
      */
     protected float getProperty(int position) {
-        return mShouldReverseLayout ? position * -mInterval : position * mInterval;
+        return PagerLayoutKernel.getOffsetOfPosition(position, mInterval, mShouldReverseLayout);
+    }
+
+    /**
+     * Every {@link #mInterval} of {@link #mOffset} is a page, and each page shows one item by default.
+     * Positions given to the offset model, like {@link #getCurrentPosition()}, are pages.
+     * Override it with {@link #getPageOfItem(int)} and {@link #getFirstItemOfPage(int)}
+     * to show more items in a page, and {@link #getCurrentItemOfPage(int)} if the page scrolls through them.
+     */
+    protected int getPageCount() {
+        return getItemCount();
+    }
+
+    /**
+     * @return the page showing the item at the adapter position
+     */
+    protected int getPageOfItem(int position) {
+        return position;
+    }
+
+    /**
+     * @return the adapter position of the first item in the page
+     */
+    protected int getFirstItemOfPage(int page) {
+        return page;
+    }
+
+    /**
+     * @return the adapter position of the item the user is looking at in the page,
+     * the first one unless a page scrolls through its items
+     */
+    protected int getCurrentItemOfPage(int page) {
+        return getFirstItemOfPage(page);
     }
 
     @Override
     public void onAdapterChanged(RecyclerView.Adapter oldAdapter, RecyclerView.Adapter newAdapter) {
+        // holders warmed up for the old adapter are dropped as they arrive,
+        // and the pool keeps the sizes computed for it
+        restoreCulledChildren();
         removeAllViews();
+        clearMeasurementCache();
         mOffset = 0;
     }
 
+    // items may change their size with their data, so measure them again after any change
+    @Override
+    public void onItemsChanged(@NonNull RecyclerView recyclerView) {
+        clearMeasurementCache();
+    }
+
+    @Override
+    public void onItemsAdded(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        clearMeasurementCache();
+    }
+
+    @Override
+    public void onItemsRemoved(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        clearMeasurementCache();
+    }
+
+    @Override
+    public void onItemsUpdated(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        clearMeasurementCache();
+    }
+
+    @Override
+    public void onItemsMoved(@NonNull RecyclerView recyclerView, int from, int to, int itemCount) {
+        clearMeasurementCache();
+    }
+
     @Override
     public void scrollToPosition(int position) {
         if (!mInfinite && (position < 0 || position >= getItemCount())) {
             return;
         }
-        mPendingScrollPosition = position;
-        mOffset = mShouldReverseLayout ? position * -mInterval : position * mInterval;
+        mPendingScrollPosition = getPageOfItem(position);
+        mOffset = PagerLayoutKernel.getOffsetOfPosition(mPendingScrollPosition, mInterval, mShouldReverseLayout);
         requestLayout();
     }
 
@@ -540,11 +806,11 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
 
         if (!mSmoothScrollbarEnabled) {
             return !mShouldReverseLayout ?
-                    getCurrentPosition() : getItemCount() - getCurrentPosition() - 1;
+                    getCurrentPosition() : getPageCount() - getCurrentPosition() - 1;
         }
 
-        final float realOffset = getOffsetOfRightAdapterPosition();
-        return !mShouldReverseLayout ? (int) realOffset : (int) ((getItemCount() - 1) * mInterval + realOffset);
+        return PagerLayoutKernel.computeScrollOffset(getOffsetOfRightAdapterPosition(), mInterval,
+                getPageCount(), mShouldReverseLayout);
     }
 
     private int computeScrollExtent() {
@@ -556,7 +822,7 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
             return 1;
         }
 
-        return (int) mInterval;
+        return PagerLayoutKernel.computeScrollExtent(mInterval, getPageCount());
     }
 
     private int computeScrollRange() {
@@ -565,10 +831,10 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         }
 
         if (!mSmoothScrollbarEnabled) {
-            return getItemCount();
+            return getPageCount();
         }
 
-        return (int) (getItemCount() * mInterval);
+        return PagerLayoutKernel.computeScrollRange(mInterval, getPageCount());
     }
 
     @Override
@@ -583,15 +849,7 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         resolveShouldLayoutReverse();
 
         //make sure properties are correct while measure more than once
-        View scrap = getMeasureView(recycler, state, 0);
-        if (scrap == null) {
-            removeAndRecycleAllViews(recycler);
-            mOffset = 0;
-            return;
-        }
-
-        measureChildWithMargins(scrap, 0, 0);
-        calChildSpaceAndSpace(scrap);
+        measureReferenceItem(recycler);
 
         mInterval = getInterval();
         setUpOnLayout();
@@ -611,11 +869,14 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
             mShouldReverseLayout = mPendingSavedState.isReverseLayout;
             mPendingScrollPosition = mPendingSavedState.position;
             mOffset = mPendingSavedState.offset;
+            final int anchorPosition = findAnchorPosition(mPendingSavedState, state.getItemCount());
+            if (anchorPosition != NO_POSITION) {
+                mOffset = getProperty(getPageOfItem(anchorPosition)) + mPendingSavedState.anchorFraction * mInterval;
+            }
         }
 
         if (mPendingScrollPosition != NO_POSITION) {
-            mOffset = mShouldReverseLayout ?
-                    mPendingScrollPosition * -mInterval : mPendingScrollPosition * mInterval;
+            mOffset = PagerLayoutKernel.getOffsetOfPosition(mPendingScrollPosition, mInterval, mShouldReverseLayout);
         }
 
         layoutItems(recycler);
@@ -626,6 +887,239 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         super.onLayoutCompleted(state);
         mPendingSavedState = null;
         mPendingScrollPosition = NO_POSITION;
+        if (mEnableAutoSizePool) {
+            sizeRecycledViewPool();
+        }
+    }
+
+    /**
+     * @return how many views of one type the pool should keep, so that a whole window of
+     * items can be recycled and brought back in a fling without creating views
+     */
+    protected int getRecycledViewPoolSize() {
+        return getWindowSize() + POOL_FLING_MARGIN;
+    }
+
+    /**
+     * @return max count of items laid out at once
+     */
+    private int getWindowSize() {
+        return useMaxVisibleCount() ? mMaxVisibleItemCount : mLeftItems + mRightItems + 1;
+    }
+
+    private void sizeRecycledViewPool() {
+        if (mRecyclerView == null) {
+            return;
+        }
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        final int poolSize = getRecycledViewPoolSize();
+        boolean grown = false;
+        for (int i = 0; i < mMeasurementCache.size(); i++) {
+            final int viewType = mMeasurementCache.keyAt(i);
+            // never shrink it, the pool may be shared with others
+            if (mPoolSizes.get(viewType) < poolSize) {
+                pool.setMaxRecycledViews(viewType, poolSize);
+                mPoolSizes.put(viewType, poolSize);
+                grown = true;
+            }
+        }
+        if (grown && mPoolFiller == null) {
+            mPoolFiller = new MessageQueue.IdleHandler() {
+                @Override
+                public boolean queueIdle() {
+                    final boolean more = fillRecycledViewPool();
+                    if (!more) {
+                        mPoolFiller = null;
+                    }
+                    return more;
+                }
+            };
+            Looper.myQueue().addIdleHandler(mPoolFiller);
+        }
+    }
+
+    /**
+     * Create one view holder for a view type which has fewer views than the pool size,
+     * called while the main thread is idle so that it won't be in the way of any frame
+     *
+     * @return true if there are more view holders to create
+     */
+    private boolean fillRecycledViewPool() {
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter == null) {
+            return false;
+        }
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        // sizes are kept across adapters, only fill the view types laid out from the current one
+        for (int i = 0; i < mMeasurementCache.size(); i++) {
+            final int viewType = mMeasurementCache.keyAt(i);
+            int attached = 0;
+            for (int j = 0; j < getChildCount(); j++) {
+                final View child = getChildAt(j);
+                if (child != null && getItemViewType(child) == viewType) {
+                    attached++;
+                }
+            }
+            if (attached + pool.getRecycledViewCount(viewType) < mPoolSizes.get(viewType)) {
+                pool.putRecycledView(adapter.createViewHolder(mRecyclerView, viewType));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cancelRecycledViewPoolFilling() {
+        if (mPoolFiller != null) {
+            Looper.myQueue().removeIdleHandler(mPoolFiller);
+            mPoolFiller = null;
+        }
+    }
+
+    public boolean getEnableAutoSizePool() {
+        return mEnableAutoSizePool;
+    }
+
+    /**
+     * When enabled, the max recycled views of each view type in the {@link RecyclerView.RecycledViewPool}
+     * is raised to the count of items laid out at once plus a margin for flings, and the pool is filled
+     * up to that count while the main thread is idle, so views won't be created during fast flings.
+     */
+    public void setEnableAutoSizePool(boolean enableAutoSizePool) {
+        if (mEnableAutoSizePool == enableAutoSizePool) {
+            return;
+        }
+        mEnableAutoSizePool = enableAutoSizePool;
+        if (!enableAutoSizePool) {
+            cancelRecycledViewPoolFilling();
+        } else {
+            requestLayout();
+        }
+    }
+
+    /**
+     * Create view holders of the given view type on a background thread and put them into the
+     * {@link RecyclerView.RecycledViewPool} of the recycler view on the main thread, so the first layout
+     * only binds them. Call it on the main thread before setting the adapter to the recycler view.
+     * <p>
+     * {@link RecyclerView.Adapter#onCreateViewHolder(ViewGroup, int)} of the view type must be safe to
+     * run off the main thread, which is true for plain inflation. Holders are dropped if another adapter
+     * has been set to the recycler view by the time they are created.
+     *
+     * @param recyclerView the recycler view this layout manager will be set to
+     * @param adapter      the adapter which will be set to the recycler view
+     * @param viewType     the view type to create
+     * @param count        how many view holders to create, usually the count of items visible at once
+     */
+    public void warmUp(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.Adapter adapter,
+                       final int viewType, final int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count should be positive");
+        }
+        final int generation = mWarmUpGeneration;
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        // the pool drops holders beyond its max, so make room for all of them first
+        if (mPoolSizes.get(viewType) < count) {
+            recyclerView.getRecycledViewPool().setMaxRecycledViews(viewType, count);
+            mPoolSizes.put(viewType, count);
+        }
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count && generation == mWarmUpGeneration; i++) {
+                    final RecyclerView.ViewHolder holder = adapter.createViewHolder(recyclerView, viewType);
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            final RecyclerView.Adapter current = recyclerView.getAdapter();
+                            if (generation != mWarmUpGeneration || (current != null && current != adapter)) {
+                                // cancelled, or holders of this adapter are useless now
+                                return;
+                            }
+                            recyclerView.getRecycledViewPool().putRecycledView(holder);
+                        }
+                    });
+                }
+            }
+        }, "ViewPagerLayoutManager-warm-up").start();
+    }
+
+    /**
+     * Stop all the warm up started by {@link #warmUp(RecyclerView, RecyclerView.Adapter, int, int)}.
+     * View holders already in the pool are kept.
+     */
+    public void cancelWarmUp() {
+        mWarmUpGeneration++;
+    }
+
+    /**
+     * Release memory held for scrolling according to the level given by
+     * {@link ComponentCallbacks2#onTrimMemory(int)}, the attached views are never touched.
+     * <ul>
+     * <li>{@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_MODERATE}: recycled views beyond the count
+     * needed to refill the whole window in a fling are dropped</li>
+     * <li>{@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_LOW} and {@link ComponentCallbacks2#TRIM_MEMORY_UI_HIDDEN}:
+     * recycled views beyond the count of the window are dropped, pending warm up and pool filling are cancelled</li>
+     * <li>{@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL} and above: all recycled views and
+     * the measurement caches are dropped</li>
+     * </ul>
+     * Views are taken out of the pool without touching its max, so it can fill up to the same max afterwards.
+     *
+     * @return estimated bytes released, counted as the decorated size of each dropped view
+     * times {@link #BYTES_PER_PIXEL}
+     */
+    public long trimMemory(int level) {
+        if (level < ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE || mRecyclerView == null) {
+            return 0;
+        }
+        final boolean critical = level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL
+                || level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND;
+        final int keep;
+        if (critical) {
+            keep = 0;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            keep = getRecycledViewPoolSize() - POOL_FLING_MARGIN;
+        } else {
+            keep = getRecycledViewPoolSize();
+        }
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            cancelRecycledViewPoolFilling();
+            cancelWarmUp();
+        }
+
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        long released = 0;
+        for (int i = 0; i < mMeasurementCache.size(); i++) {
+            final int viewType = mMeasurementCache.keyAt(i);
+            final int dropped = dropRecycledViews(pool, viewType, keep);
+            released += (long) dropped * mMeasurementCache.valueAt(i)
+                    * mMeasurementInOtherCache.get(viewType) * BYTES_PER_PIXEL;
+        }
+        for (int i = 0; i < mPoolSizes.size(); i++) {
+            final int viewType = mPoolSizes.keyAt(i);
+            // warmed up but never laid out, so the size is unknown
+            if (mMeasurementCache.indexOfKey(viewType) < 0) {
+                dropRecycledViews(pool, viewType, keep);
+            }
+        }
+        if (critical) {
+            // remeasured by the next layout
+            clearMeasurementCache();
+        }
+        return released;
+    }
+
+    /**
+     * Take the recycled views beyond the given count out of the pool and let them go.
+     * The max of the pool is left alone, since it can't be read back and may have been set by others.
+     *
+     * @return count of views dropped
+     */
+    private static int dropRecycledViews(RecyclerView.RecycledViewPool pool, int viewType, int keep) {
+        int dropped = 0;
+        while (pool.getRecycledViewCount(viewType) > keep && pool.getRecycledView(viewType) != null) {
+            dropped++;
+        }
+        return dropped;
     }
 
     @Override
@@ -667,14 +1161,18 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         realDx = willScroll / getDistanceRatio();
 
         mOffset += realDx;
+        updateQuality(willScroll);
 
         //handle recycle
-        layoutItems(recycler);
+        if (!mScrollInPlace || !layoutItemsInPlace()) {
+            layoutItems(recycler);
+        }
 
         return willScroll;
     }
 
     protected void layoutItems(@NonNull RecyclerView.Recycler recycler) {
+        restoreCulledChildren();
         detachAndScrapAttachedViews(recycler);
         positionCache.clear();
 
@@ -684,55 +1182,22 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
             return;
         }
 
-        // make sure that current position start from 0 to 1
-        final int currentPos = mShouldReverseLayout ?
-                -getCurrentPositionOffset() : getCurrentPositionOffset();
-        int start = currentPos - mLeftItems;
-        int end = currentPos + mRightItems;
-
-        // handle max visible count
-        if (useMaxVisibleCount()) {
-            boolean isEven = mMaxVisibleItemCount % 2 == 0;
-            if (isEven) {
-                int offset = mMaxVisibleItemCount / 2;
-                start = currentPos - offset + 1;
-                end = currentPos + offset + 1;
-            } else {
-                int offset = (mMaxVisibleItemCount - 1) / 2;
-                start = currentPos - offset;
-                end = currentPos + offset + 1;
-            }
-        }
-
-        if (!mInfinite) {
-            if (start < 0) {
-                start = 0;
-                if (useMaxVisibleCount()) {
-                    end = mMaxVisibleItemCount;
-                }
-            }
-            if (end > itemCount) {
-                end = itemCount;
-            }
-        }
+        calLayoutWindow(itemCount);
+        final int currentPos = mLayoutCurrent;
+        final int start = mLayoutWindow[PagerLayoutKernel.WINDOW_START];
+        final int end = mLayoutWindow[PagerLayoutKernel.WINDOW_END];
 
         float lastOrderWeight = Float.MIN_VALUE;
+        int laidOut = 0;
+        mLayoutOrder = 0;
         for (int i = start; i < end; i++) {
             if (useMaxVisibleCount() || !removeCondition(getProperty(i) - mOffset)) {
                 // start and end base on current position,
                 // so we need to calculate the adapter position
-                int adapterPosition = i;
-                if (i >= itemCount) {
-                    adapterPosition %= itemCount;
-                } else if (i < 0) {
-                    int delta = (-adapterPosition) % itemCount;
-                    if (delta == 0) {
-                        delta = itemCount;
-                    }
-                    adapterPosition = itemCount - delta;
-                }
+                final int adapterPosition = PagerLayoutKernel.toAdapterPosition(i, itemCount);
                 final View scrap = recycler.getViewForPosition(adapterPosition);
                 measureChildWithMargins(scrap, 0, 0);
+                cacheMeasurement(scrap);
                 resetViewProperty(scrap);
                 // we need i to calculate the real offset of current view
                 //目标偏移距离, 相对于居中位置的参考值
@@ -742,9 +1207,13 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
                         getViewElevation(scrap, targetOffset) : adapterPosition;
                 if (orderWeight > lastOrderWeight) {
                     addView(scrap);
+                    if (laidOut < Long.SIZE) {
+                        mLayoutOrder |= 1L << laidOut;
+                    }
                 } else {
                     addView(scrap, 0);
                 }
+                laidOut++;
                 if (i == currentPos) {
                     currentFocusView = scrap;
                 }
@@ -756,9 +1225,10 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
             }
         }
 
+        mLayoutOrderValid = laidOut <= Long.SIZE;
+
         List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
         for (int i = scrapList.size() - 1; i >= 0; i--) {
-            positionCache.put(i, null);
             removeAndRecycleView(scrapList.get(i).itemView, recycler);
         }
 
@@ -777,15 +1247,211 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
                         right <= getPaddingLeft() ||
                         bottom <= getPaddingTop()) {
                     //不可见item, 回收
-                    positionCache.put(i, null);
+                    final int cacheIndex = positionCache.indexOfValue(childAt);
+                    if (cacheIndex >= 0) {
+                        positionCache.removeAt(cacheIndex);
+                    }
                     removeAndRecycleView(childAt, recycler);
                 }
             }
         }
 
+        cullOccludedChildren();
         currentFocusView.requestFocus();
     }
 
+    /**
+     * Hide children which are fully covered by an opaque child drawn in front of them.
+     * Only works when {@link #setEnableOcclusionCulling(boolean)} is enabled and the adapter
+     * implements {@link OpaqueItemProvider}.
+     */
+    private void cullOccludedChildren() {
+        restoreCulledChildren();
+        if (!mEnableOcclusionCulling || mRecyclerView == null
+                || !(mRecyclerView.getAdapter() instanceof OpaqueItemProvider)) {
+            return;
+        }
+        final OpaqueItemProvider provider = (OpaqueItemProvider) mRecyclerView.getAdapter();
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View front = getChildAt(i);
+            if (front == null || !isOccluder(front, provider)) {
+                continue;
+            }
+            getTransformedBoundingBox(front, false, mOccluderRect);
+            for (int j = 0; j < childCount; j++) {
+                final View back = getChildAt(j);
+                if (j == i || back == null || back.getVisibility() != View.VISIBLE
+                        || !isDrawnBehind(back, j, front, i)) {
+                    continue;
+                }
+                getTransformedBoundingBox(back, false, mOccludedRect);
+                if (mOccluderRect.contains(mOccludedRect)) {
+                    back.setVisibility(View.INVISIBLE);
+                    mCulledViews.add(back);
+                }
+            }
+        }
+    }
+
+    /**
+     * A rotated or translucent child doesn't cover its whole bounding box
+     */
+    private boolean isOccluder(View view, OpaqueItemProvider provider) {
+        return view.getVisibility() == View.VISIBLE && view.getAlpha() == 1f
+                && view.getRotation() == 0 && view.getRotationX() == 0 && view.getRotationY() == 0
+                && provider.isItemOpaque(getPosition(view));
+    }
+
+    /**
+     * Children are drawn in the order of z, and then in the order of index
+     */
+    private boolean isDrawnBehind(View back, int backIndex, View front, int frontIndex) {
+        final float backZ = ViewCompat.getZ(back);
+        final float frontZ = ViewCompat.getZ(front);
+        return backZ < frontZ || (backZ == frontZ && backIndex < frontIndex);
+    }
+
+    private void restoreCulledChildren() {
+        for (int i = 0; i < mCulledViews.size(); i++) {
+            mCulledViews.get(i).setVisibility(View.VISIBLE);
+        }
+        mCulledViews.clear();
+    }
+
+    /**
+     * Calculate the range of layout positions which should be laid out around current position,
+     * the result is kept in {@link #mLayoutWindow} and {@link #mLayoutCurrent}
+     */
+    private void calLayoutWindow(int itemCount) {
+        // make sure that current position start from 0 to 1
+        mLayoutCurrent = mShouldReverseLayout ?
+                -getCurrentPositionOffset() : getCurrentPositionOffset();
+        PagerLayoutKernel.calculateWindow(mLayoutCurrent, mLeftItems, mRightItems,
+                mMaxVisibleItemCount, mInfinite, itemCount, mLayoutWindow);
+    }
+
+    /**
+     * Move {@link #mOffset} to the given value and only update the position and properties
+     * of attached children, without detaching, rebinding or re-adding any of them.
+     * If another set of children should be visible at the new offset, a layout will be requested instead.
+     *
+     * @return true if children were updated in place
+     */
+    boolean updateOffsetInPlace(float offset) {
+        mOffset = offset;
+        if (getChildCount() == 0 || mOrientationHelper == null || !layoutItemsInPlace()) {
+            requestLayout();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean layoutItemsInPlace() {
+        final int itemCount = getItemCount();
+        if (itemCount == 0) {
+            return false;
+        }
+        calLayoutWindow(itemCount);
+        final int start = mLayoutWindow[PagerLayoutKernel.WINDOW_START];
+        final int end = mLayoutWindow[PagerLayoutKernel.WINDOW_END];
+        int attached = 0;
+        for (int i = start; i < end; i++) {
+            final boolean visible = useMaxVisibleCount() || !removeCondition(getProperty(i) - mOffset);
+            final View view = positionCache.get(i);
+            if (visible != (view != null)) {
+                return false;
+            }
+            if (view != null) {
+                attached++;
+            }
+        }
+        if (attached != positionCache.size()) {
+            return false;
+        }
+        if (mEnableBringCenterToFront && !mLayoutOrderValid) {
+            return false;
+        }
+        float lastOrderWeight = Float.MIN_VALUE;
+        int laidOut = 0;
+        long order = 0;
+        for (int i = start; i < end; i++) {
+            final View view = positionCache.get(i);
+            if (view != null) {
+                resetViewProperty(view);
+                final float targetOffset = getProperty(i) - mOffset;
+                layoutScrap(view, targetOffset);
+                if (mEnableBringCenterToFront) {
+                    // same rule as layoutItems, the weight may depend on the properties just set
+                    final float orderWeight = getViewElevation(view, targetOffset);
+                    if (orderWeight > lastOrderWeight) {
+                        order |= 1L << laidOut;
+                    }
+                    lastOrderWeight = orderWeight;
+                    laidOut++;
+                }
+            }
+        }
+        if (mEnableBringCenterToFront && order != mLayoutOrder) {
+            // children should be drawn in another order, which only a layout can change
+            return false;
+        }
+        cullOccludedChildren();
+        return true;
+    }
+
+    @Override
+    public void onScrollStateChanged(int state) {
+        super.onScrollStateChanged(state);
+        if (state == RecyclerView.SCROLL_STATE_IDLE) {
+            onScrollIdle();
+        }
+    }
+
+    /**
+     * Scrolling has stopped, also called by {@link AutoPlaySnapHelper} after its offset animation
+     * since the recycler view stays idle during it
+     */
+    void onScrollIdle() {
+        mLastScrollTime = 0;
+        mDegradedUntilIdle = false;
+        if (mQualityDegraded) {
+            // layout again with the full transforms
+            mQualityDegraded = false;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Decide from the speed and the time since the last scroll whether this frame is laid out
+     * in reduced quality, see {@link #setEnableAdaptiveQuality(boolean)}
+     */
+    private void updateQuality(int scrolled) {
+        if (!mEnableAdaptiveQuality) {
+            return;
+        }
+        final long now = SystemClock.uptimeMillis();
+        final long lastScrollTime = mLastScrollTime;
+        mLastScrollTime = now;
+        // the first scroll after idle has no frame before it, long frames after it are all counted
+        if (lastScrollTime == 0 || now <= lastScrollTime) {
+            return;
+        }
+        final long frameTime = now - lastScrollTime;
+        final float velocity = Math.abs(scrolled) * 1000f / frameTime;
+        final boolean settling = mRecyclerView != null
+                && mRecyclerView.getScrollState() == RecyclerView.SCROLL_STATE_SETTLING;
+        if (settling && frameTime > mFrameDeadline) {
+            mQualityDegraded = true;
+            mDegradedUntilIdle = true;
+        } else if (velocity > mDegradeVelocity) {
+            mQualityDegraded = true;
+        } else if (mQualityDegraded && !mDegradedUntilIdle && velocity < mDegradeVelocity / 2) {
+            // slowed down enough to be looked at, half the threshold so it won't flicker around it
+            mQualityDegraded = false;
+        }
+    }
+
     protected void removeAndRecycleView(@NonNull RecyclerView.Recycler recycler, int i) {
         final View view = getChildAt(i);
         if (view != null) {
@@ -811,23 +1477,28 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
     }
 
     protected float getMaxOffset() {
-        return !mShouldReverseLayout ? (getItemCount() - 1) * mInterval : 0;
+        return PagerLayoutKernel.getMaxOffset(mInterval, getPageCount(), mShouldReverseLayout);
     }
 
     protected float getMinOffset() {
-        return !mShouldReverseLayout ? 0 : -(getItemCount() - 1) * mInterval;
+        return PagerLayoutKernel.getMinOffset(mInterval, getPageCount(), mShouldReverseLayout);
     }
 
     protected void layoutScrap(View scrap, float targetOffset) {
         final int left = calItemLeft(scrap, targetOffset);
         final int top = calItemTop(scrap, targetOffset);
+        // items of other sizes are laid out with their own size, centered in the slot of the first item
+        final int measurement = mOrientationHelper.getDecoratedMeasurement(scrap);
+        final int measurementInOther = mOrientationHelper.getDecoratedMeasurementInOther(scrap);
+        final int spaceMain = mSpaceMain + (mDecoratedMeasurement - measurement) / 2;
+        final int spaceInOther = mSpaceInOther + (mDecoratedMeasurementInOther - measurementInOther) / 2;
 
         if (mOrientation == VERTICAL) {
-            layoutDecorated(scrap, mSpaceInOther + left, mSpaceMain + top,
-                    mSpaceInOther + left + mDecoratedMeasurementInOther, mSpaceMain + top + mDecoratedMeasurement);
+            layoutDecorated(scrap, spaceInOther + left, spaceMain + top,
+                    spaceInOther + left + measurementInOther, spaceMain + top + measurement);
         } else {
-            layoutDecorated(scrap, mSpaceMain + left, mSpaceInOther + top,
-                    mSpaceMain + left + mDecoratedMeasurement, mSpaceInOther + top + mDecoratedMeasurementInOther);
+            layoutDecorated(scrap, spaceMain + left, spaceInOther + top,
+                    spaceMain + left + measurement, spaceInOther + top + measurementInOther);
         }
         setItemViewProperty(scrap, targetOffset);
     }
@@ -867,47 +1538,23 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
     }
 
     public int getCurrentPosition() {
-        if (getItemCount() == 0) {
-            return 0;
-        }
-
-        int position = getCurrentPositionOffset();
-        if (!mInfinite) {
-            return Math.abs(position);
-        }
-
-        position = !mShouldReverseLayout ?
-                //take care of position = getItemCount()
-                (position >= 0 ?
-                        position % getItemCount() :
-                        getItemCount() + position % getItemCount()) :
-                (position > 0 ?
-                        getItemCount() - position % getItemCount() :
-                        -position % getItemCount());
-        return position == getItemCount() ? 0 : position;
+        return PagerLayoutKernel.getCurrentPosition(mOffset, mInterval, getPageCount(), mInfinite, mShouldReverseLayout);
     }
 
     @Override
     public View findViewByPosition(int position) {
         final int itemCount = getItemCount();
-        if (itemCount == 0) {
+        if (position < 0 || position >= itemCount || positionCache.size() == 0) {
             return null;
         }
-        for (int i = 0; i < positionCache.size(); i++) {
-            final int key = positionCache.keyAt(i);
-            if (key >= 0) {
-                if (position == key % itemCount) {
-                    return positionCache.valueAt(i);
-                }
-            } else {
-                int delta = key % itemCount;
-                if (delta == 0) {
-                    delta = -itemCount;
-                }
-                if (itemCount + delta != position) {
-                    continue;
-                }
-                return positionCache.valueAt(i);
+        // a window can hold the same adapter position more than once in infinite mode, look the copies up
+        // from the lowest layout position instead of scanning the whole window
+        final int windowEnd = positionCache.keyAt(positionCache.size() - 1);
+        for (int layoutPosition = PagerLayoutKernel.findLayoutPosition(position, positionCache.keyAt(0), itemCount);
+             layoutPosition <= windowEnd; layoutPosition += itemCount) {
+            final View view = positionCache.get(layoutPosition);
+            if (view != null) {
+                return view;
             }
         }
         return null;
@@ -924,11 +1571,21 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         return -1;
     }
 
-    public int getCurrentPositionOffset() {
+    /**
+     * @return the page at the center with the fraction scrolled beyond it, e.g. 1.25 is a quarter of
+     * the way from page 1 to page 2. It is in [0, page count) when infinite scroll is enabled, and it
+     * counts from the first page even if the layout is reversed.
+     */
+    public float getPagePosition() {
         if (mInterval == 0) {
             return 0;
         }
-        return Math.round(mOffset / mInterval);
+        final float offset = getOffsetOfRightAdapterPosition();
+        return (mShouldReverseLayout ? -offset : offset) / mInterval;
+    }
+
+    public int getCurrentPositionOffset() {
+        return PagerLayoutKernel.getCurrentPositionOffset(mOffset, mInterval);
     }
 
     /**
@@ -936,19 +1593,8 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
      * cause when {@link #mInfinite} is set true, there will be no limitation of {@link #mOffset}
      */
     protected float getOffsetOfRightAdapterPosition() {
-        if (mShouldReverseLayout) {
-            return mInfinite ?
-                    (mOffset <= 0 ?
-                            (mOffset % (mInterval * getItemCount())) :
-                            (getItemCount() * -mInterval + mOffset % (mInterval * getItemCount()))) :
-                    mOffset;
-        } else {
-            return mInfinite ?
-                    (mOffset >= 0 ?
-                            (mOffset % (mInterval * getItemCount())) :
-                            (getItemCount() * mInterval + mOffset % (mInterval * getItemCount()))) :
-                    mOffset;
-        }
+        return PagerLayoutKernel.getOffsetOfRightAdapterPosition(mOffset, mInterval, getPageCount(),
+                mInfinite, mShouldReverseLayout);
     }
 
     /**
@@ -957,21 +1603,13 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
      * @return the dy between center and current position
      */
     public int getOffsetToCenter() {
-        if (mInfinite) {
-            return (int) ((getCurrentPositionOffset() * mInterval - mOffset) * getDistanceRatio());
-        }
-        return (int) ((getCurrentPosition() *
-                (!mShouldReverseLayout ? mInterval : -mInterval) - mOffset) * getDistanceRatio());
+        return PagerLayoutKernel.getOffsetToCenter(mOffset, mInterval, getPageCount(),
+                mInfinite, mShouldReverseLayout, getDistanceRatio());
     }
 
     public int getOffsetToPosition(int position) {
-        if (mInfinite) {
-            return (int) (((getCurrentPositionOffset() +
-                    (!mShouldReverseLayout ? position - getCurrentPositionOffset() : -getCurrentPositionOffset() - position)) *
-                    mInterval - mOffset) * getDistanceRatio());
-        }
-        return (int) ((position *
-                (!mShouldReverseLayout ? mInterval : -mInterval) - mOffset) * getDistanceRatio());
+        return PagerLayoutKernel.getOffsetToPosition(position, mOffset, mInterval,
+                mInfinite, mShouldReverseLayout, getDistanceRatio());
     }
 
     public void setOnPageChangeListener(OnPageChangeListener onPageChangeListener) {
@@ -1058,6 +1696,105 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         requestLayout();
     }
 
+    public boolean getEnableOcclusionCulling() {
+        return mEnableOcclusionCulling;
+    }
+
+    /**
+     * When enabled and the adapter implements {@link OpaqueItemProvider}, children fully covered
+     * by an opaque, unrotated and untranslucent child in front of them are set to {@link View#INVISIBLE},
+     * so they won't be drawn. They are made visible again before the next layout.
+     */
+    public void setEnableOcclusionCulling(boolean enableOcclusionCulling) {
+        assertNotInLayoutOrScroll(null);
+        if (mEnableOcclusionCulling == enableOcclusionCulling) {
+            return;
+        }
+        mEnableOcclusionCulling = enableOcclusionCulling;
+        requestLayout();
+    }
+
+    public boolean getEnableAdaptiveQuality() {
+        return mEnableAdaptiveQuality;
+    }
+
+    /**
+     * When enabled, items are laid out in reduced quality while scrolling faster than
+     * {@link #setDegradeVelocity(float)}, or after a frame of a fling took longer than
+     * {@link #setFrameDeadline(long)}. Layout managers then skip the costly properties,
+     * like alpha and 3D rotation, until scrolling slows down or stops.
+     *
+     * @see #isQualityDegraded()
+     */
+    public void setEnableAdaptiveQuality(boolean enableAdaptiveQuality) {
+        if (mEnableAdaptiveQuality == enableAdaptiveQuality) {
+            return;
+        }
+        mEnableAdaptiveQuality = enableAdaptiveQuality;
+        if (!enableAdaptiveQuality && mQualityDegraded) {
+            mQualityDegraded = false;
+            mDegradedUntilIdle = false;
+            requestLayout();
+        }
+    }
+
+    public float getDegradeVelocity() {
+        return mDegradeVelocity;
+    }
+
+    /**
+     * @param degradeVelocity scroll speed in pixels per second above which quality is reduced
+     */
+    public void setDegradeVelocity(float degradeVelocity) {
+        if (degradeVelocity <= 0) {
+            throw new IllegalArgumentException("degrade velocity should be positive");
+        }
+        mDegradeVelocity = degradeVelocity;
+    }
+
+    public long getFrameDeadline() {
+        return mFrameDeadline;
+    }
+
+    /**
+     * @param frameDeadline time in milliseconds between two frames of a fling above which quality is reduced
+     */
+    public void setFrameDeadline(long frameDeadline) {
+        if (frameDeadline <= 0) {
+            throw new IllegalArgumentException("frame deadline should be positive");
+        }
+        mFrameDeadline = frameDeadline;
+    }
+
+    /**
+     * @return true if items are being laid out in reduced quality,
+     * which {@link #setItemViewProperty(View, float)} should check to skip the costly properties
+     */
+    public boolean isQualityDegraded() {
+        return mQualityDegraded;
+    }
+
+    public PrefetchAdvisor getPrefetchAdvisor() {
+        return prefetchAdvisor;
+    }
+
+    /**
+     * Set the {@link PrefetchAdvisor} which reports the positions predicted to be seen,
+     * or null to stop predicting.
+     */
+    public void setPrefetchAdvisor(PrefetchAdvisor prefetchAdvisor) {
+        if (this.prefetchAdvisor == prefetchAdvisor) {
+            return;
+        }
+        if (this.prefetchAdvisor != null) {
+            this.prefetchAdvisor.detach();
+        }
+        this.prefetchAdvisor = prefetchAdvisor;
+        if (prefetchAdvisor != null && mRecyclerView != null) {
+            prefetchAdvisor.attach(mRecyclerView, this);
+        }
+    }
+
     /**
      * Returns the current state of the smooth scrollbar feature. It is enabled by default.
      *
@@ -1095,6 +1832,17 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         void onPageScrollStateChanged(int state);
     }
 
+    /**
+     * Implemented by an adapter to tell which items fully cover their bounds,
+     * used by {@link #setEnableOcclusionCulling(boolean)}
+     */
+    public interface OpaqueItemProvider {
+        /**
+         * @return true if the item view draws every pixel of its bounds with an opaque color
+         */
+        boolean isItemOpaque(int position);
+    }
+
     protected static class SavedState implements Parcelable {
         public static final Parcelable.Creator<SavedState> CREATOR
                 = new Parcelable.Creator<SavedState>() {
@@ -1111,6 +1859,15 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
         int position;
         float offset;
         boolean isReverseLayout;
+        /**
+         * Stable id of the current item, {@link RecyclerView#NO_ID} if the adapter has no stable ids
+         */
+        long anchorItemId = RecyclerView.NO_ID;
+        int anchorPosition;
+        /**
+         * How far the current item has been scrolled from its center, in count of items
+         */
+        float anchorFraction;
 
         SavedState() {
 
@@ -1120,12 +1877,18 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
             position = in.readInt();
             offset = in.readFloat();
             isReverseLayout = in.readInt() == 1;
+            anchorItemId = in.readLong();
+            anchorPosition = in.readInt();
+            anchorFraction = in.readFloat();
         }
 
         public SavedState(SavedState other) {
             position = other.position;
             offset = other.offset;
             isReverseLayout = other.isReverseLayout;
+            anchorItemId = other.anchorItemId;
+            anchorPosition = other.anchorPosition;
+            anchorFraction = other.anchorFraction;
         }
 
         @Override
@@ -1138,6 +1901,9 @@ public abstract class ViewPagerLayoutManager extends LinearLayoutManager {
             dest.writeInt(position);
             dest.writeFloat(offset);
             dest.writeInt(isReverseLayout ? 1 : 0);
+            dest.writeLong(anchorItemId);
+            dest.writeInt(anchorPosition);
+            dest.writeFloat(anchorFraction);
         }
     }
 }
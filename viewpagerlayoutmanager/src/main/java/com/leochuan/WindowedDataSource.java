@@ -0,0 +1,308 @@
+package com.leochuan;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * Keeps a sliding window of pages of items around the current position of a {@link ViewPagerLayoutManager},
+ * so an adapter can show a huge or endless data set loaded page by page from somewhere else.
+ * <p>
+ * The adapter reports {@link #getTotalCount()} as its item count and binds {@link #getItem(int)},
+ * which is null until the page of the item arrives, so it should bind a placeholder for it.
+ * Pages arriving only change items, never insert them, so the offset of the layout manager stays the same.
+ * Pages ahead of the scroll direction are requested first, pages out of the window are dropped.
+ *
+ * @param <T> type of the items
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class WindowedDataSource<T> {
+
+    private final PageLoader<T> loader;
+    private final int totalCount;
+    private final int pageSize;
+    private final int windowPages;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final SparseArray<List<T>> pages = new SparseArray<>();
+    private final SparseBooleanArray loadingPages = new SparseBooleanArray();
+    /**
+     * Callbacks of loads started before {@link #invalidate()} are ignored
+     */
+    private int generation;
+    private int currentPage = RecyclerView.NO_POSITION;
+    private boolean forward = true;
+
+    protected RecyclerView mRecyclerView;
+
+    protected final RecyclerView.OnScrollListener mScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (!(layoutManager instanceof ViewPagerLayoutManager)) {
+                return;
+            }
+            final ViewPagerLayoutManager viewPagerLayoutManager = (ViewPagerLayoutManager) layoutManager;
+            final int delta = viewPagerLayoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL ? dy : dx;
+            if (delta != 0) {
+                forward = (delta > 0) != viewPagerLayoutManager.shouldReverseLayout();
+            }
+            onPositionChanged(viewPagerLayoutManager.getCurrentItemOfPage(viewPagerLayoutManager.getCurrentPosition()));
+        }
+    };
+
+    public WindowedDataSource(Builder<T> builder) {
+        if (builder.pageSize < 1 || builder.windowPages < 1 || builder.totalCount < 0) {
+            throw new IllegalArgumentException("page size and window pages should be positive");
+        }
+        this.loader = builder.loader;
+        this.totalCount = builder.totalCount;
+        this.pageSize = builder.pageSize;
+        this.windowPages = builder.windowPages;
+    }
+
+    /**
+     * Follow the current position of the {@link ViewPagerLayoutManager} of the recycler view,
+     * whose adapter gets notified when pages arrive.
+     * You can call this method with {@code null} to detach it from the current RecyclerView.
+     */
+    public void attachToRecyclerView(@Nullable RecyclerView recyclerView) {
+        if (mRecyclerView == recyclerView) {
+            return; // nothing to do
+        }
+        if (mRecyclerView != null) {
+            mRecyclerView.removeOnScrollListener(mScrollListener);
+        }
+        mRecyclerView = recyclerView;
+        if (mRecyclerView != null) {
+            mRecyclerView.addOnScrollListener(mScrollListener);
+        }
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the item at the adapter position, or null if its page is not loaded yet,
+     * in which case the page is requested
+     */
+    @Nullable
+    public T getItem(int position) {
+        final int page = position / pageSize;
+        final List<T> items = pages.get(page);
+        if (items == null) {
+            loadPage(page);
+            return null;
+        }
+        final int index = position - page * pageSize;
+        return index < items.size() ? items.get(index) : null;
+    }
+
+    /**
+     * Move the window to the page of the position, called by the attached recycler view on scroll
+     */
+    public void onPositionChanged(int position) {
+        if (totalCount == 0) {
+            return;
+        }
+        final int page = position / pageSize;
+        if (page == currentPage) {
+            return;
+        }
+        currentPage = page;
+
+        // drop the pages out of the window
+        for (int i = pages.size() - 1; i >= 0; i--) {
+            if (getPageDistance(pages.keyAt(i), page) > windowPages) {
+                pages.removeAt(i);
+            }
+        }
+
+        // the current page, then the ones ahead, then the ones behind
+        final int step = forward ? 1 : -1;
+        loadPage(page);
+        for (int i = 1; i <= windowPages; i++) {
+            loadPage(wrapPage(page + step * i));
+        }
+        for (int i = 1; i <= windowPages; i++) {
+            loadPage(wrapPage(page - step * i));
+        }
+    }
+
+    /**
+     * Drop all the loaded pages and ignore the loads in flight, e.g. when the data set is refreshed.
+     * Items are loaded again when they are bound.
+     */
+    public void invalidate() {
+        generation++;
+        // only items of the window may have been bound, the others will be bound anyway
+        final SparseBooleanArray stalePages = loadingPages.clone();
+        for (int i = 0; i < pages.size(); i++) {
+            stalePages.put(pages.keyAt(i), true);
+        }
+        pages.clear();
+        loadingPages.clear();
+        currentPage = RecyclerView.NO_POSITION;
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter == null) {
+            return;
+        }
+        // keys are sorted, notify each run of consecutive pages at once
+        int i = 0;
+        while (i < stalePages.size()) {
+            final int firstPage = stalePages.keyAt(i);
+            int lastPage = firstPage;
+            while (++i < stalePages.size() && stalePages.keyAt(i) == lastPage + 1) {
+                lastPage++;
+            }
+            final int start = firstPage * pageSize;
+            adapter.notifyItemRangeChanged(start, Math.min((lastPage + 1) * pageSize, totalCount) - start);
+        }
+    }
+
+    private void loadPage(final int page) {
+        if (page < 0 || page >= getPageCount() || pages.get(page) != null || loadingPages.get(page)) {
+            return;
+        }
+        loadingPages.put(page, true);
+        final int loadGeneration = generation;
+        loader.loadPage(page, pageSize, new LoadCallback<T>() {
+            @Override
+            public void onLoaded(@NonNull final List<T> items) {
+                runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(loadGeneration, page, items);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailed() {
+                runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (loadGeneration == generation) {
+                            // it will be requested again the next time it is needed
+                            loadingPages.delete(page);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void onPageLoaded(int loadGeneration, int page, List<T> items) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        loadingPages.delete(page);
+        if (currentPage != RecyclerView.NO_POSITION && getPageDistance(page, currentPage) > windowPages) {
+            // scrolled away while loading
+            return;
+        }
+        pages.put(page, items);
+        final RecyclerView.Adapter adapter = mRecyclerView == null ? null : mRecyclerView.getAdapter();
+        if (adapter != null) {
+            // placeholders are replaced in place, nothing moves
+            final int start = page * pageSize;
+            adapter.notifyItemRangeChanged(start, Math.min(pageSize, totalCount - start));
+        }
+    }
+
+    /**
+     * Always posted, even from the main thread, since items may be requested while binding
+     * and the adapter can't be notified in the middle of a layout
+     */
+    private void runOnMainThread(Runnable runnable) {
+        mainHandler.post(runnable);
+    }
+
+    private int getPageCount() {
+        return (totalCount + pageSize - 1) / pageSize;
+    }
+
+    private boolean isInfinite() {
+        final RecyclerView.LayoutManager layoutManager = mRecyclerView == null ? null : mRecyclerView.getLayoutManager();
+        return layoutManager instanceof ViewPagerLayoutManager && ((ViewPagerLayoutManager) layoutManager).getInfinite();
+    }
+
+    /**
+     * In infinite mode the first page is next to the last one
+     */
+    private int wrapPage(int page) {
+        final int pageCount = getPageCount();
+        if (!isInfinite() || pageCount == 0) {
+            return page;
+        }
+        return PagerLayoutKernel.toAdapterPosition(page, pageCount);
+    }
+
+    private int getPageDistance(int from, int to) {
+        final int distance = Math.abs(from - to);
+        return isInfinite() ? Math.min(distance, getPageCount() - distance) : distance;
+    }
+
+    /**
+     * Loads a page of items, it can be called on any thread
+     */
+    public interface PageLoader<T> {
+        /**
+         * @param page     index of the page, from 0
+         * @param pageSize count of items of a full page, the last page can be shorter
+         * @param callback must be called exactly once, on any thread
+         */
+        void loadPage(int page, int pageSize, @NonNull LoadCallback<T> callback);
+    }
+
+    public interface LoadCallback<T> {
+        void onLoaded(@NonNull List<T> items);
+
+        void onFailed();
+    }
+
+    public static class Builder<T> {
+        private static final int DEFAULT_PAGE_SIZE = 20;
+        private static final int DEFAULT_WINDOW_PAGES = 2;
+
+        private PageLoader<T> loader;
+        private int totalCount;
+        private int pageSize;
+        private int windowPages;
+
+        /**
+         * @param totalCount count of all the items, which is the item count of the adapter
+         */
+        public Builder(@NonNull PageLoader<T> loader, int totalCount) {
+            this.loader = loader;
+            this.totalCount = totalCount;
+            pageSize = DEFAULT_PAGE_SIZE;
+            windowPages = DEFAULT_WINDOW_PAGES;
+        }
+
+        public Builder<T> setPageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * @param windowPages count of pages kept on each side of the current page
+         */
+        public Builder<T> setWindowPages(int windowPages) {
+            this.windowPages = windowPages;
+            return this;
+        }
+
+        public WindowedDataSource<T> build() {
+            return new WindowedDataSource<>(this);
+        }
+    }
+}
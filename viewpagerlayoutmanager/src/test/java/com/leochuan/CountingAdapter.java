@@ -0,0 +1,71 @@
+package com.leochuan;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * An adapter of fixed size views which counts the work done by the layout manager
+ */
+class CountingAdapter extends RecyclerView.Adapter<CountingAdapter.Holder> {
+    static final int ITEM_WIDTH = 600;
+    static final int ITEM_HEIGHT = 800;
+
+    private final int itemCount;
+    int createCount;
+    int bindCount;
+    int measureCount;
+
+    CountingAdapter(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    void resetCounts() {
+        createCount = 0;
+        bindCount = 0;
+        measureCount = 0;
+    }
+
+    @NonNull
+    @Override
+    public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        createCount++;
+        final View view = new CountingView(parent.getContext(), this);
+        view.setLayoutParams(new RecyclerView.LayoutParams(ITEM_WIDTH, ITEM_HEIGHT));
+        return new Holder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull Holder holder, int position) {
+        bindCount++;
+    }
+
+    @Override
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    static class Holder extends RecyclerView.ViewHolder {
+        Holder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    private static class CountingView extends View {
+        private final CountingAdapter adapter;
+
+        CountingView(Context context, CountingAdapter adapter) {
+            super(context);
+            this.adapter = adapter;
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            adapter.measureCount++;
+            setMeasuredDimension(ITEM_WIDTH, ITEM_HEIGHT);
+        }
+    }
+}
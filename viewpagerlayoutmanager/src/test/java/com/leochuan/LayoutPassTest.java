@@ -0,0 +1,139 @@
+package com.leochuan;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bounds the work each layout manager does while scrolling, so a regression in recycling fails the build.
+ * <p>
+ * Views may only be created for the items visible at once plus what the recycler caches,
+ * and only items coming into sight may be bound. A slow drag moves a tenth of a page per frame,
+ * so at most one item enters and one leaves on each side in a frame.
+ * <p>
+ * Every test prints the counts it observed, to tighten the bounds against.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = 28)
+public class LayoutPassTest {
+    private static final int ITEM_COUNT = 100;
+    /**
+     * Views the recycler may keep aside without reusing them, its view cache, one prefetched and one in flight
+     */
+    private static final int RECYCLER_SLACK = PagerHarness.VIEW_CACHE_SIZE + 2;
+    /**
+     * Items entering or leaving the window on both sides in a frame of a slow drag
+     */
+    private static final int MAX_CHANGES_PER_FRAME = 2;
+
+    private final String manager;
+
+    public LayoutPassTest(String manager) {
+        this.manager = manager;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> managers() {
+        final List<Object[]> managers = new ArrayList<>();
+        for (String manager : PagerHarness.allManagers()) {
+            managers.add(new Object[]{manager});
+        }
+        return managers;
+    }
+
+    @Test
+    public void scrollBindsOnlyItemsComingIntoSight() {
+        final PagerHarness harness = new PagerHarness(manager, ITEM_COUNT, false);
+        harness.resetCounts();
+
+        harness.scrollPages(30);
+        harness.scrollPages(-30);
+
+        printCounts("scroll", harness);
+        assertCreatedAtMostVisibleViews(harness);
+        assertAtMost("binds", harness.adapter.bindCount, 60 + harness.maxChildCount + RECYCLER_SLACK);
+        assertSlowDragFrames(harness);
+    }
+
+    @Test
+    public void flingBindsOnlyItemsPassedBy() {
+        final PagerHarness harness = new PagerHarness(manager, ITEM_COUNT, false);
+        harness.recyclerView.scrollToPosition(ITEM_COUNT / 2);
+        harness.layout();
+        final int start = harness.getLayoutPosition();
+        harness.resetCounts();
+
+        assertTrue(manager + " fling didn't settle", harness.fling(harness.recyclerView.getMaxFlingVelocity() / 2));
+
+        final int pages = Math.abs(harness.getLayoutPosition() - start);
+        printCounts("fling of " + pages + " pages", harness);
+        assertTrue(manager + " fling didn't move", pages > 0);
+        assertCreatedAtMostVisibleViews(harness);
+        assertAtMost("binds", harness.adapter.bindCount, pages + harness.maxChildCount + RECYCLER_SLACK);
+    }
+
+    @Test
+    public void scrollToPositionBindsOnlyTheNewWindow() {
+        final PagerHarness harness = new PagerHarness(manager, ITEM_COUNT, false);
+        harness.resetCounts();
+
+        harness.recyclerView.scrollToPosition(ITEM_COUNT / 2);
+        harness.layout();
+
+        printCounts("scrollToPosition", harness);
+        assertTrue(manager + " didn't scroll to the position",
+                harness.layoutManager.getCurrentPosition() == ITEM_COUNT / 2);
+        assertCreatedAtMostVisibleViews(harness);
+        assertAtMost("binds", harness.adapter.bindCount, harness.maxChildCount + RECYCLER_SLACK);
+        assertAtMost("attaches", harness.attachCount, harness.maxChildCount + RECYCLER_SLACK);
+    }
+
+    @Test
+    public void infiniteWrapReusesViews() {
+        final int itemCount = 20;
+        final PagerHarness harness = new PagerHarness(manager, itemCount, true);
+        harness.resetCounts();
+
+        // across the first item backward twice, then forward again
+        harness.scrollPages(-2 * itemCount);
+        harness.scrollPages(4 * itemCount);
+
+        printCounts("infinite wrap", harness);
+        assertCreatedAtMostVisibleViews(harness);
+        assertAtMost("binds", harness.adapter.bindCount, 6 * itemCount + harness.maxChildCount + RECYCLER_SLACK);
+        assertSlowDragFrames(harness);
+    }
+
+    private void assertCreatedAtMostVisibleViews(PagerHarness harness) {
+        assertAtMost("creates", harness.adapter.createCount, harness.maxChildCount + RECYCLER_SLACK);
+    }
+
+    private void assertSlowDragFrames(PagerHarness harness) {
+        assertAtMost("binds per frame", harness.maxBindsPerFrame, MAX_CHANGES_PER_FRAME);
+        assertAtMost("creates per frame", harness.maxCreatesPerFrame, MAX_CHANGES_PER_FRAME);
+        assertAtMost("attaches per frame", harness.maxAttachesPerFrame, MAX_CHANGES_PER_FRAME);
+        assertAtMost("detaches per frame", harness.maxDetachesPerFrame, MAX_CHANGES_PER_FRAME);
+        // views which stay in sight keep their measurement, only the entering ones are measured
+        assertAtMost("measures per frame", harness.maxMeasuresPerFrame, MAX_CHANGES_PER_FRAME);
+    }
+
+    private void printCounts(String test, PagerHarness harness) {
+        System.out.println(manager + " " + test + ": max children " + harness.maxChildCount
+                + ", creates " + harness.adapter.createCount + ", binds " + harness.adapter.bindCount
+                + ", attaches " + harness.attachCount + ", detaches " + harness.detachCount
+                + ", per frame at most: binds " + harness.maxBindsPerFrame
+                + ", creates " + harness.maxCreatesPerFrame + ", measures " + harness.maxMeasuresPerFrame
+                + ", attaches " + harness.maxAttachesPerFrame + ", detaches " + harness.maxDetachesPerFrame);
+    }
+
+    private void assertAtMost(String work, int actual, int bound) {
+        assertTrue(manager + " " + work + ": " + actual + " > " + bound, actual <= bound);
+    }
+}
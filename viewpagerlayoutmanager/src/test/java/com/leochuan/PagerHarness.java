@@ -0,0 +1,214 @@
+package com.leochuan;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attaches a {@link ViewPagerLayoutManager} to a {@link RecyclerView} in an activity,
+ * drives it frame by frame and keeps the work done in the worst frame.
+ */
+class PagerHarness {
+    static final String SCALE = "scale";
+    static final String GALLERY = "gallery";
+    static final String CAROUSEL = "carousel";
+    static final String CIRCLE = "circle";
+    static final String CIRCLE_SCALE = "circleScale";
+    static final String ROTATE = "rotate";
+    static final String STACK = "stack";
+    static final String COVER_FLOW = "coverFlow";
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 1920;
+    static final long FRAME_MILLIS = 16;
+    /**
+     * The default of RecyclerView, set explicitly since bounds on created views depend on it
+     */
+    static final int VIEW_CACHE_SIZE = 2;
+    /**
+     * Frames after which a fling which hasn't settled is considered stuck
+     */
+    private static final int MAX_FLING_FRAMES = 1000;
+
+    final RecyclerView recyclerView;
+    final ViewPagerLayoutManager layoutManager;
+    final CountingAdapter adapter;
+
+    int attachCount;
+    int detachCount;
+    int maxChildCount;
+    int maxBindsPerFrame;
+    int maxCreatesPerFrame;
+    int maxMeasuresPerFrame;
+    int maxAttachesPerFrame;
+    int maxDetachesPerFrame;
+
+    private int lastBindCount;
+    private int lastCreateCount;
+    private int lastMeasureCount;
+    private int lastAttachCount;
+    private int lastDetachCount;
+
+    PagerHarness(String manager, int itemCount, boolean infinite) {
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        layoutManager = createLayoutManager(activity, manager);
+        layoutManager.setInfinite(infinite);
+        adapter = new CountingAdapter(itemCount);
+        recyclerView = new RecyclerView(activity);
+        recyclerView.setItemViewCacheSize(VIEW_CACHE_SIZE);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnChildAttachStateChangeListener(new RecyclerView.OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(@NonNull View view) {
+                attachCount++;
+            }
+
+            @Override
+            public void onChildViewDetachedFromWindow(@NonNull View view) {
+                detachCount++;
+            }
+        });
+        activity.setContentView(recyclerView, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        layout();
+    }
+
+    static ViewPagerLayoutManager createLayoutManager(Context context, String manager) {
+        switch (manager) {
+            case SCALE:
+                return new ScaleLayoutManager(context, 0);
+            case GALLERY:
+                return new GalleryLayoutManager(context, 0);
+            case CAROUSEL:
+                return new CarouselLayoutManager(context, 0);
+            case CIRCLE:
+                return new CircleLayoutManager(context);
+            case CIRCLE_SCALE:
+                return new CircleScaleLayoutManager(context);
+            case ROTATE:
+                return new RotateLayoutManager(context, 0);
+            case STACK:
+                return new StackLayoutManager(context, 0);
+            case COVER_FLOW:
+                return new CoverFlowLayoutManager(context, 0);
+            default:
+                throw new IllegalArgumentException("unknown layout manager:" + manager);
+        }
+    }
+
+    static String[] allManagers() {
+        return new String[]{SCALE, GALLERY, CAROUSEL, CIRCLE, CIRCLE_SCALE, ROTATE, STACK, COVER_FLOW};
+    }
+
+    /**
+     * Run a layout pass right now, as a frame
+     */
+    void layout() {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+        endFrame();
+    }
+
+    /**
+     * @return the scroll distance in pixels of one item
+     */
+    int getPageSize() {
+        return Math.max(1, Math.round(Math.abs(layoutManager.mInterval * layoutManager.getDistanceRatio())));
+    }
+
+    /**
+     * Scroll by the given pixels in one frame
+     */
+    void scrollBy(int distance) {
+        if (layoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL) {
+            recyclerView.scrollBy(0, distance);
+        } else {
+            recyclerView.scrollBy(distance, 0);
+        }
+        endFrame();
+    }
+
+    /**
+     * Scroll by the given pages, a tenth of a page per frame like a slow drag
+     */
+    void scrollPages(int pages) {
+        final int step = Math.max(1, getPageSize() / 10);
+        final int direction = pages > 0 ? 1 : -1;
+        final int distance = Math.abs(pages) * getPageSize();
+        for (int scrolled = 0; scrolled < distance; scrolled += step) {
+            scrollBy(direction * Math.min(step, distance - scrolled));
+        }
+    }
+
+    /**
+     * Fling and run frames until it settles
+     *
+     * @return true if the fling settled
+     */
+    boolean fling(int velocity) {
+        final boolean vertical = layoutManager.getOrientation() == ViewPagerLayoutManager.VERTICAL;
+        if (!recyclerView.fling(vertical ? 0 : velocity, vertical ? velocity : 0)) {
+            return false;
+        }
+        for (int i = 0; i < MAX_FLING_FRAMES; i++) {
+            ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+            endFrame();
+            if (recyclerView.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the layout position at the center, counted from 0 to 1 even if the layout is reversed
+     */
+    int getLayoutPosition() {
+        final int position = layoutManager.getCurrentPositionOffset();
+        return layoutManager.shouldReverseLayout() ? -position : position;
+    }
+
+    /**
+     * Start counting from now, the worst frame included
+     */
+    void resetCounts() {
+        adapter.resetCounts();
+        attachCount = 0;
+        detachCount = 0;
+        maxChildCount = recyclerView.getChildCount();
+        maxBindsPerFrame = 0;
+        maxCreatesPerFrame = 0;
+        maxMeasuresPerFrame = 0;
+        maxAttachesPerFrame = 0;
+        maxDetachesPerFrame = 0;
+        lastBindCount = 0;
+        lastCreateCount = 0;
+        lastMeasureCount = 0;
+        lastAttachCount = 0;
+        lastDetachCount = 0;
+    }
+
+    private void endFrame() {
+        maxChildCount = Math.max(maxChildCount, recyclerView.getChildCount());
+        maxBindsPerFrame = Math.max(maxBindsPerFrame, adapter.bindCount - lastBindCount);
+        maxCreatesPerFrame = Math.max(maxCreatesPerFrame, adapter.createCount - lastCreateCount);
+        maxMeasuresPerFrame = Math.max(maxMeasuresPerFrame, adapter.measureCount - lastMeasureCount);
+        maxAttachesPerFrame = Math.max(maxAttachesPerFrame, attachCount - lastAttachCount);
+        maxDetachesPerFrame = Math.max(maxDetachesPerFrame, detachCount - lastDetachCount);
+        lastBindCount = adapter.bindCount;
+        lastCreateCount = adapter.createCount;
+        lastMeasureCount = adapter.measureCount;
+        lastAttachCount = attachCount;
+        lastDetachCount = detachCount;
+    }
+}
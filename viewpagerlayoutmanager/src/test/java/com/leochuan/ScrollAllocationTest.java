@@ -0,0 +1,249 @@
+package com.leochuan;
+
+import com.google.monitoring.runtime.instrumentation.AllocationRecorder;
+import com.google.monitoring.runtime.instrumentation.Sampler;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Scrolls each layout manager through thousands of frames and fails if a steady state frame allocates.
+ * <p>
+ * A steady state frame is one where no child is attached or detached, the same views are only
+ * moved and transformed. Bytes are counted by the JVM for the test thread around
+ * {@link PagerHarness#scrollBy(int)}. When a frame allocates, the frames are replayed on a new
+ * harness up to the first allocating one, which is run again with an allocation sampler so the
+ * failure names where the allocations come from.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ScrollAllocationTest {
+    private static final int ITEM_COUNT = 100;
+    private static final int WARM_UP_FRAMES = 1000;
+    private static final int MEASURED_FRAMES = 4000;
+    /**
+     * Pages scrolled forward then backward, over and over
+     */
+    private static final int SWING_PAGES = 3;
+    private static final int FRAMES_PER_PAGE = 10;
+
+    private final String manager;
+
+    public ScrollAllocationTest(String manager) {
+        this.manager = manager;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> managers() {
+        final List<Object[]> managers = new ArrayList<>();
+        for (String manager : PagerHarness.allManagers()) {
+            managers.add(new Object[]{manager});
+        }
+        return managers;
+    }
+
+    @Test
+    public void steadyScrollAllocatesNothing() {
+        final PagerHarness harness = new PagerHarness(manager, ITEM_COUNT, true);
+        final AllocationCounter counter = new AllocationCounter(getThreadBean());
+
+        swing(harness, null, 0, WARM_UP_FRAMES, null);
+        final FrameReport report = new FrameReport();
+        swing(harness, counter, WARM_UP_FRAMES, WARM_UP_FRAMES + MEASURED_FRAMES, report);
+
+        System.out.println(manager + " steady state frames: " + report.steadyFrames
+                + ", allocating: " + report.allocatingFrames + ", bytes: " + report.allocatedBytes);
+        assertTrue(manager + " had no steady state frame", report.steadyFrames > 0);
+        if (report.allocatingFrames > 0) {
+            fail(manager + " allocated in " + report.allocatingFrames + " of " + report.steadyFrames
+                    + " steady state frames, " + report.allocatedBytes + " bytes in total, "
+                    + report.maxFrameBytes + " bytes at most in frame " + report.maxFrame
+                    + "\nfirst allocating frame " + report.firstAllocatingFrame + ":\n"
+                    + findAllocationSites(report.firstAllocatingFrame));
+        }
+    }
+
+    /**
+     * Scroll back and forth a tenth of a page per frame, from frame start to frame end
+     *
+     * @param counter counts the bytes of each frame, or null to only scroll
+     */
+    private static void swing(PagerHarness harness, AllocationCounter counter, int start, int end,
+                              FrameReport report) {
+        for (int frame = start; frame < end; frame++) {
+            final int distance = frameDistance(harness, frame);
+            if (counter == null) {
+                harness.scrollBy(distance);
+                continue;
+            }
+            final int childChanges = harness.attachCount + harness.detachCount;
+            counter.start();
+            harness.scrollBy(distance);
+            final long frameBytes = counter.end();
+            if (report == null || harness.attachCount + harness.detachCount != childChanges) {
+                continue;
+            }
+            report.steadyFrames++;
+            if (frameBytes > 0) {
+                if (report.allocatingFrames == 0) {
+                    report.firstAllocatingFrame = frame;
+                }
+                report.allocatingFrames++;
+                report.allocatedBytes += frameBytes;
+                if (frameBytes > report.maxFrameBytes) {
+                    report.maxFrameBytes = frameBytes;
+                    report.maxFrame = frame;
+                }
+            }
+        }
+    }
+
+    private static int frameDistance(PagerHarness harness, int frame) {
+        final int step = Math.max(1, harness.getPageSize() / FRAMES_PER_PAGE);
+        final int direction = (frame / (SWING_PAGES * FRAMES_PER_PAGE)) % 2 == 0 ? 1 : -1;
+        return direction * step;
+    }
+
+    /**
+     * Replay the frames up to the given one on a new harness, then run that frame with a sampler
+     *
+     * @return the allocations of the frame with their call sites
+     */
+    private String findAllocationSites(int frame) {
+        final PagerHarness harness = new PagerHarness(manager, ITEM_COUNT, true);
+        swing(harness, null, 0, frame, null);
+        final AllocationSites sites = new AllocationSites(Thread.currentThread());
+        AllocationRecorder.addSampler(sites);
+        try {
+            sites.recording = true;
+            harness.scrollBy(frameDistance(harness, frame));
+        } finally {
+            sites.recording = false;
+            AllocationRecorder.removeSampler(sites);
+        }
+        return sites.describe();
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        final java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            throw new AssertionError("the JVM can't count allocated bytes per thread");
+        }
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocationBean;
+    }
+
+    /**
+     * Bytes allocated by the current thread between {@link #start()} and {@link #end()},
+     * minus what reading the counter itself allocates
+     */
+    private static class AllocationCounter {
+        private static final int CALIBRATION_ROUNDS = 100;
+
+        private final com.sun.management.ThreadMXBean threadBean;
+        private final long threadId = Thread.currentThread().getId();
+        private final long overhead;
+        private long startBytes;
+
+        AllocationCounter(com.sun.management.ThreadMXBean threadBean) {
+            this.threadBean = threadBean;
+            long overhead = Long.MAX_VALUE;
+            for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+                final long start = threadBean.getThreadAllocatedBytes(threadId);
+                overhead = Math.min(overhead, threadBean.getThreadAllocatedBytes(threadId) - start);
+            }
+            this.overhead = overhead;
+        }
+
+        void start() {
+            startBytes = threadBean.getThreadAllocatedBytes(threadId);
+        }
+
+        long end() {
+            return Math.max(0, threadBean.getThreadAllocatedBytes(threadId) - startBytes - overhead);
+        }
+    }
+
+    /**
+     * Keeps the first allocations of a thread with the top of their stacks.
+     * Allocations are only reported when the test JVM runs with the java-allocation-instrumenter agent,
+     * which the unit test tasks of this module are set up with.
+     */
+    private static class AllocationSites implements Sampler {
+        private static final int MAX_SITES = 10;
+        private static final int STACK_DEPTH = 8;
+
+        private final Thread thread;
+        private final List<String> sites = new ArrayList<>();
+        volatile boolean recording;
+        private boolean sampling;
+
+        AllocationSites(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public void sampleAllocation(int count, String desc, Object newObj, long size) {
+            if (!recording || sampling || Thread.currentThread() != thread || sites.size() >= MAX_SITES) {
+                return;
+            }
+            // what is allocated below is the sampler's own, don't sample it
+            sampling = true;
+            try {
+                final StringBuilder site = new StringBuilder(desc);
+                if (count >= 0) {
+                    site.append('[').append(count).append(']');
+                }
+                site.append(", ").append(size).append(" bytes");
+                int depth = 0;
+                for (StackTraceElement element : new Throwable().getStackTrace()) {
+                    if (element.getClassName().startsWith("com.google.monitoring.")
+                            || element.getClassName().equals(AllocationSites.class.getName())) {
+                        continue;
+                    }
+                    site.append("\n    at ").append(element);
+                    if (++depth == STACK_DEPTH) {
+                        break;
+                    }
+                }
+                sites.add(site.toString());
+            } finally {
+                sampling = false;
+            }
+        }
+
+        String describe() {
+            if (sites.isEmpty()) {
+                return "no allocation was sampled, run the test with"
+                        + " -javaagent:java-allocation-instrumenter.jar to see the call sites";
+            }
+            final StringBuilder description = new StringBuilder();
+            for (String site : sites) {
+                description.append(site).append('\n');
+            }
+            return description.toString();
+        }
+    }
+
+    private static class FrameReport {
+        int steadyFrames;
+        int allocatingFrames;
+        int firstAllocatingFrame;
+        long allocatedBytes;
+        long maxFrameBytes;
+        int maxFrame;
+    }
+}
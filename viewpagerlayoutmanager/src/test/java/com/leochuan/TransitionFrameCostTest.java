@@ -0,0 +1,85 @@
+package com.leochuan;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the cost of a scrolled frame on the two paths of auto play: the full layout of
+ * {@link AutoPlaySnapHelper#TRANSITION_SMOOTH_SCROLL} and the update in place of
+ * {@link AutoPlaySnapHelper#TRANSITION_OFFSET_ANIMATION}, over the same frames.
+ * <p>
+ * Times are printed rather than asserted, they depend on the machine.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = 28)
+public class TransitionFrameCostTest {
+    private static final int ITEM_COUNT = 100;
+    private static final int WARM_UP_FRAMES = 500;
+    private static final int MEASURED_FRAMES = 2000;
+    /**
+     * Frames of one transition, 400ms at 60fps
+     */
+    private static final int FRAMES_PER_TRANSITION = 24;
+
+    private final String manager;
+
+    public TransitionFrameCostTest(String manager) {
+        this.manager = manager;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> managers() {
+        final List<Object[]> managers = new ArrayList<>();
+        for (String manager : PagerHarness.allManagers()) {
+            managers.add(new Object[]{manager});
+        }
+        return managers;
+    }
+
+    @Test
+    public void compareFrameCost() {
+        final PagerHarness layoutHarness = new PagerHarness(manager, ITEM_COUNT, true);
+        final PagerHarness inPlaceHarness = new PagerHarness(manager, ITEM_COUNT, true);
+
+        transitions(layoutHarness, false, WARM_UP_FRAMES);
+        transitions(inPlaceHarness, true, WARM_UP_FRAMES);
+        final long layoutNanos = transitions(layoutHarness, false, MEASURED_FRAMES);
+        final long inPlaceNanos = transitions(inPlaceHarness, true, MEASURED_FRAMES);
+
+        System.out.println(manager + " median frame: layout " + layoutNanos + "ns, in place " + inPlaceNanos + "ns");
+        // both paths should end up showing the same thing
+        assertEquals(manager, layoutHarness.layoutManager.mOffset, inPlaceHarness.layoutManager.mOffset, 0.5f);
+        assertEquals(manager, layoutHarness.recyclerView.getChildCount(), inPlaceHarness.recyclerView.getChildCount());
+    }
+
+    /**
+     * Scroll a page forward per transition, every frame the same distance
+     *
+     * @return the median time of a frame in nanoseconds
+     */
+    private static long transitions(PagerHarness harness, boolean inPlace, int frames) {
+        final int step = Math.max(1, harness.getPageSize() / FRAMES_PER_TRANSITION);
+        final long[] frameNanos = new long[frames];
+        harness.layoutManager.mScrollInPlace = inPlace;
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                final long start = System.nanoTime();
+                harness.scrollBy(step);
+                frameNanos[frame] = System.nanoTime() - start;
+            }
+        } finally {
+            harness.layoutManager.mScrollInPlace = false;
+        }
+        Arrays.sort(frameNanos);
+        return frameNanos[frames / 2];
+    }
+}